@@ -0,0 +1,80 @@
+package com.hicman.CorporateSite.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.hicman.CorporateSite.CorporateSiteApplication;
+
+import java.util.Random;
+
+/**
+ * Contesto Spring condiviso dai benchmark: applicazione completa su H2 in memoria
+ * con il dataset deterministico del profilo "dataset" (stesso seed, stessi dati a ogni esecuzione).
+ * sentence/paragraphs generano i testi dei benchmark che non usano il database.
+ */
+final class BenchmarkContext {
+
+    static final int POSTS = 200;
+    static final int TESTIMONIALS = 30;
+
+    private static final long SEED = 42;
+
+    private static final String[] WORDS = {
+        "finanza", "strutturata", "capitale", "investimento", "impresa", "credito", "mercato", "crescita",
+        "operazione", "rating", "cartolarizzazione", "debito", "equity", "advisory", "banca", "fondo",
+        "sostenibilità", "rischio", "liquidità", "portafoglio", "acquisizione", "partner", "progetto", "sviluppo"
+    };
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CorporateSiteApplication.class)
+                .profiles("dataset")
+                .properties(
+                    "server.port=0",
+                    "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.password=",
+                    "spring.sql.init.mode=never",
+                    "spring.devtools.restart.enabled=false",
+                    "logging.level.root=WARN",
+                    "file.upload-dir=target/benchmark-uploads",
+                    "admin.username=benchmark",
+                    "admin.password=benchmark",
+                    "mailgun.api.key=benchmark",
+                    "mailgun.domain=example.invalid",
+                    "mailgun.from=benchmark@example.invalid",
+                    "mailgun.to=benchmark@example.invalid",
+                    "dataset.seed=" + SEED,
+                    "dataset.posts=" + POSTS,
+                    "dataset.testimonials=" + TESTIMONIALS)
+                .run();
+
+        return context;
+    }
+
+    static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+        return sb.append('.').toString();
+    }
+
+    static String paragraphs(Random random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int sentences = 4 + random.nextInt(4);
+            for (int s = 0; s < sentences; s++) {
+                sb.append(sentence(random, 8 + random.nextInt(12))).append(' ');
+            }
+            sb.append("\n\n");
+        }
+        return sb.toString().trim();
+    }
+}
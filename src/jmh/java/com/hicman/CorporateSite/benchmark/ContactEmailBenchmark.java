@@ -0,0 +1,51 @@
+package com.hicman.CorporateSite.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hicman.CorporateSite.Model.Contact;
+import com.hicman.CorporateSite.Service.ContactService;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Testo dell'email di notifica, costruito nel thread della richiesta prima dell'accodamento
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactEmailBenchmark {
+
+    // buildEmailText non usa la configurazione Mailgun: basta il costruttore
+    private final ContactService contactService = new ContactService();
+
+    private Contact contact;
+
+    @Setup
+    public void setUp() {
+        contact = new Contact();
+        contact.setNome("Mario");
+        contact.setCognome("Rossi");
+        contact.setEmail("mario.rossi@example.com");
+        contact.setTelefono("+39 02 1234567");
+        contact.setServizio("Finanza strutturata");
+        contact.setMessaggio(BenchmarkContext.paragraphs(new Random(42), 2));
+    }
+
+    @Benchmark
+    public String buildEmailText() {
+        return contactService.buildEmailText(contact);
+    }
+}
@@ -0,0 +1,58 @@
+package com.hicman.CorporateSite.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+import com.hicman.CorporateSite.Model.Testimonial;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estratti di articoli e testimonianze, calcolati per ogni card delle liste pubbliche
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExcerptBenchmark {
+
+    // Lunghezze usate dai template (card, anteprima) e un caso senza troncamento
+    @Param({"150", "300", "5000"})
+    private int maxLength;
+
+    private BlogPost post;
+    private Testimonial testimonial;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        post = new BlogPost();
+        post.setTitle(BenchmarkContext.sentence(random, 8));
+        post.setContent(BenchmarkContext.paragraphs(random, 5));
+
+        testimonial = new Testimonial(BenchmarkContext.sentence(random, 60), "Cliente");
+    }
+
+    @Benchmark
+    public String blogPostExcerpt() {
+        return post.getExcerpt(maxLength);
+    }
+
+    @Benchmark
+    public String testimonialExcerpt() {
+        return testimonial.getExcerpt(maxLength);
+    }
+}
@@ -0,0 +1,51 @@
+package com.hicman.CorporateSite.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.hicman.CorporateSite.Config.SmartLocaleResolver;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Risoluzione della lingua da Accept-Language (italiano, inglese, lingua non supportata)
+ * La richiesta viene riusata: si misura il resolver, non la costruzione del mock.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocaleResolverBenchmark {
+
+    @Param({"it-IT,it;q=0.9,en;q=0.8", "en-US,en;q=0.9", "de-DE,de;q=0.9"})
+    private String acceptLanguage;
+
+    private final SmartLocaleResolver resolver = new SmartLocaleResolver();
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/");
+        // Il mock ricava le lingue preferite dall'header, come Tomcat
+        request.addHeader("Accept-Language", acceptLanguage);
+    }
+
+    @Benchmark
+    public Locale resolveLocale() {
+        return resolver.resolveLocale(request);
+    }
+}
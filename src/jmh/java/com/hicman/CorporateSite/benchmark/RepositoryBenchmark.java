@@ -0,0 +1,75 @@
+package com.hicman.CorporateSite.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+import com.hicman.CorporateSite.Repository.BlogPostRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query di BlogPostRepository sul dataset di BenchmarkContext (H2 in memoria)
+ * Misura il costo JPA + H2 senza rete: utile per confrontare query e indici, non i tempi di produzione.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private BlogPostRepository blogPostRepository;
+    private Long publishedId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        blogPostRepository = context.getBean(BlogPostRepository.class);
+        List<BlogPost> latest = blogPostRepository.findTop10ByPublishedTrueOrderByPublishedDateDesc();
+        publishedId = latest.get(latest.size() / 2).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<BlogPost> publishedPage() {
+        return blogPostRepository.findByPublishedTrueOrderByPublishedDateDesc(PageRequest.of(2, 9));
+    }
+
+    @Benchmark
+    public Optional<BlogPost> publishedById() {
+        return blogPostRepository.findByIdAndPublishedTrue(publishedId);
+    }
+
+    @Benchmark
+    public long countPublished() {
+        return blogPostRepository.countByPublishedTrue();
+    }
+
+    @Benchmark
+    public Slice<BlogPost> adminFirstPage() {
+        return blogPostRepository.findAdminFirstPage(null, PageRequest.of(0, 20));
+    }
+}
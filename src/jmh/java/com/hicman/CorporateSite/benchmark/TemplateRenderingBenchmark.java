@@ -0,0 +1,144 @@
+package com.hicman.CorporateSite.benchmark;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import org.springframework.web.servlet.resource.ResourceUrlProviderExposingInterceptor;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+import com.hicman.CorporateSite.Model.Contact;
+import com.hicman.CorporateSite.Service.KeysetPage;
+import com.hicman.CorporateSite.Service.PublishedContentStore;
+import com.hicman.CorporateSite.Service.RelatedPostsService;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render Thymeleaf delle pagine pubbliche più visitate, con gli stessi model dei controller
+ * Passa dal ResourceUrlEncodingFilter come in produzione (URL versionati degli asset);
+ * la PageCacheFilter e la sicurezza sono escluse: si misura solo il render.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderingBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ViewResolver viewResolver;
+    private LocaleResolver localeResolver;
+    private ResourceUrlProvider resourceUrlProvider;
+    private ServletContext servletContext;
+
+    private Map<String, Object> indexModel;
+    private Map<String, Object> pressListModel;
+    private Map<String, Object> pressDetailModel;
+
+    private View indexView;
+    private View pressListView;
+    private View pressDetailView;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        viewResolver = context.getBean("thymeleafViewResolver", ViewResolver.class);
+        localeResolver = context.getBean(LocaleResolver.class);
+        resourceUrlProvider = context.getBean("mvcResourceUrlProvider", ResourceUrlProvider.class);
+        servletContext = ((WebApplicationContext) context).getServletContext();
+
+        PublishedContentStore store = context.getBean(PublishedContentStore.class);
+        RelatedPostsService relatedPostsService = context.getBean(RelatedPostsService.class);
+
+        indexModel = new HashMap<>();
+        indexModel.put("pageTitle", "Hicman Capital Partner - Finanza Strutturata");
+        indexModel.put("contact", new Contact());
+
+        KeysetPage<BlogPost> blogPage = store.getPublishedPostsAfter(null, 9);
+        pressListModel = new HashMap<>();
+        pressListModel.put("posts", blogPage.content());
+        pressListModel.put("blogPage", blogPage);
+        pressListModel.put("totalItems", store.countPublishedPosts());
+        pressListModel.put("pageTitle", "Hicman Capital Partner - Rassegna Stampa");
+
+        BlogPost post = blogPage.content().get(0);
+        List<BlogPost> relatedPosts = relatedPostsService.getRelatedPosts(post.getId(), 3);
+        pressDetailModel = new HashMap<>();
+        pressDetailModel.put("post", post);
+        pressDetailModel.put("pageTitle", post.getTitle() + " - Hicman Capital Partner");
+        pressDetailModel.put("relatedPosts", relatedPosts);
+
+        indexView = viewResolver.resolveViewName("index", Locale.ITALIAN);
+        pressListView = viewResolver.resolveViewName("rassegna-stampa", Locale.ITALIAN);
+        pressDetailView = viewResolver.resolveViewName("press-detail", Locale.ITALIAN);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String index() throws Exception {
+        return render(indexView, indexModel, "/");
+    }
+
+    @Benchmark
+    public String rassegnaStampa() throws Exception {
+        return render(pressListView, pressListModel, "/rassegna-stampa");
+    }
+
+    @Benchmark
+    public String pressDetail() throws Exception {
+        return render(pressDetailView, pressDetailModel, "/rassegna-stampa/" + ((BlogPost) pressDetailModel.get("post")).getId());
+    }
+
+    private String render(View view, Map<String, Object> model, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", uri);
+        request.addHeader("Accept-Language", "it-IT,it;q=0.9,en;q=0.8");
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+        request.setAttribute(DispatcherServlet.LOCALE_RESOLVER_ATTRIBUTE, localeResolver);
+        request.setAttribute(ResourceUrlProviderExposingInterceptor.RESOURCE_URL_PROVIDER_ATTR, resourceUrlProvider);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ResourceUrlEncodingFilter().doFilter(request, response, (req, res) -> {
+            try {
+                view.render(model, (HttpServletRequest) req, (HttpServletResponse) res);
+            } catch (IOException | ServletException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ServletException(e);
+            }
+        });
+        return response.getContentAsString();
+    }
+}
@@ -0,0 +1,76 @@
+package com.hicman.CorporateSite.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Latenze di uno scenario, in microsecondi
+ * "corrected" parte dall'istante in cui la richiesta era programmata (modello aperto): se il generatore
+ * o il server restano indietro, l'attesa entra nella misura invece di sparire (coordinated omission).
+ * "service" parte dall'invio effettivo ed è quello che misurerebbe un client a modello chiuso.
+ */
+final class LatencyRecorder {
+
+    private long[] corrected = new long[1024];
+    private long[] service = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void record(long correctedMicros, long serviceMicros) {
+        if (count == corrected.length) {
+            corrected = Arrays.copyOf(corrected, count * 2);
+            service = Arrays.copyOf(service, count * 2);
+        }
+        corrected[count] = correctedMicros;
+        service[count] = serviceMicros;
+        count++;
+    }
+
+    synchronized void recordError() {
+        errors++;
+    }
+
+    /**
+     * Aggiunge le misure di questo scenario a un altro recorder (totale)
+     */
+    synchronized void copyTo(LatencyRecorder target) {
+        for (int i = 0; i < count; i++) {
+            target.record(corrected[i], service[i]);
+        }
+        for (long i = 0; i < errors; i++) {
+            target.recordError();
+        }
+    }
+
+    synchronized Summary summarize() {
+        return new Summary(count, errors, percentiles(corrected, count), percentiles(service, count));
+    }
+
+    private static long[] percentiles(long[] values, int count) {
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        long[] result = new long[Summary.PERCENTILES.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = count == 0 ? 0 : sorted[(int) Math.min(count - 1, Math.ceil(Summary.PERCENTILES[i] / 100 * count) - 1)];
+        }
+        return result;
+    }
+
+    record Summary(int count, long errors, long[] corrected, long[] service) {
+
+        static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+
+        static String header() {
+            return String.format(Locale.ROOT, "%-22s %8s %7s   %s", "scenario", "ok", "errori",
+                    "p50 / p90 / p99 / p99.9 / max (ms, corretti)      [p99 servizio]");
+        }
+
+        String format(String name) {
+            StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%-22s %8d %7d  ", name, count, errors));
+            for (long micros : corrected) {
+                sb.append(String.format(Locale.ROOT, " %8.1f", micros / 1000.0));
+            }
+            return sb.append(String.format(Locale.ROOT, "   [%.1f]", service[2] / 1000.0)).toString();
+        }
+    }
+}
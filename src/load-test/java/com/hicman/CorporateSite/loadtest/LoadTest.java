@@ -0,0 +1,205 @@
+package com.hicman.CorporateSite.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.StringUtils;
+
+import com.hicman.CorporateSite.CorporateSiteApplication;
+import com.hicman.CorporateSite.Model.BlogPost;
+import com.hicman.CorporateSite.Service.ContactOutboxService;
+import com.hicman.CorporateSite.Service.KeysetPage;
+import com.hicman.CorporateSite.Service.PageCursor;
+import com.hicman.CorporateSite.Service.PublishedContentStore;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Test di carico end-to-end: avvia il sito su un H2 su file con dati generati e lo interroga via HTTP
+ * Modello aperto: gli arrivi seguono un processo di Poisson al tasso richiesto, indipendente dalle risposte;
+ * la latenza si misura dall'istante di arrivo programmato (correzione della coordinated omission).
+ * Con lo stesso seed la sequenza di richieste e il dataset sono identici tra un'esecuzione e l'altra.
+ *
+ * Parametri (system property): load.rate (richieste/s), load.duration, load.warmup, load.seed,
+ * load.posts, load.testimonials, load.mail-latency, load.db, load.profiles.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        double rate = Double.parseDouble(System.getProperty("load.rate", "50"));
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("load.duration", "60s"));
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("load.warmup", "15s"));
+        long seed = Long.getLong("load.seed", 42);
+        int posts = Integer.getInteger("load.posts", 5000);
+        int testimonials = Integer.getInteger("load.testimonials", 40);
+        Duration mailLatency = DurationStyle.detectAndParse(System.getProperty("load.mail-latency", "150ms"));
+        String db = System.getProperty("load.db", "target/load-test/hicman");
+        // Il profilo dataset genera i contenuti alla prima esecuzione (database vuoto)
+        String profiles = StringUtils.hasText(System.getProperty("load.profiles"))
+                ? "dataset," + System.getProperty("load.profiles")
+                : "dataset";
+
+        try (MailgunStub mailgun = new MailgunStub(mailLatency)) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(CorporateSiteApplication.class)
+                    .profiles(StringUtils.commaDelimitedListToStringArray(profiles))
+                    .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:file:./" + db,
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.sql.init.mode=never",
+                        "spring.devtools.restart.enabled=false",
+                        "logging.level.root=WARN",
+                        "file.upload-dir=target/load-test/uploads",
+                        "admin.username=loadtest",
+                        "admin.password=loadtest",
+                        "mailgun.api.key=load-test",
+                        "mailgun.api.base-url=" + mailgun.baseUrl(),
+                        "mailgun.domain=example.invalid",
+                        "mailgun.from=load-test@example.invalid",
+                        "mailgun.to=load-test@example.invalid",
+                        // Tutto il traffico arriva da 127.0.0.1: il limite per IP bloccherebbe il form dopo pochi invii
+                        "rate-limit.contact.ip-capacity=1000000",
+                        "rate-limit.contact.email-capacity=1000000",
+                        "dataset.seed=" + seed,
+                        "dataset.posts=" + posts,
+                        "dataset.testimonials=" + testimonials)
+                    .run();
+
+            try {
+                PublishedContentStore store = context.getBean(PublishedContentStore.class);
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                TrafficMix mix = new TrafficMix(URI.create("http://127.0.0.1:" + port), pressCursors(store), postIds(store));
+
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .followRedirects(HttpClient.Redirect.NEVER)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+
+                System.out.printf(Locale.ROOT, "Test di carico: %.1f req/s, warm-up %s, misura %s, seed %d, %d articoli pubblicati%n",
+                        rate, warmup, duration, seed, store.countPublishedPosts());
+
+                run(client, mix, rate, warmup, new Random(seed), null);
+                Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+                mix.scenarios().forEach(scenario -> recorders.put(scenario.name(), new LatencyRecorder()));
+                long completed = run(client, mix, rate, duration, new Random(seed + 1), recorders);
+
+                report(recorders, completed, duration);
+                ContactOutboxService outbox = context.getBean(ContactOutboxService.class);
+                System.out.printf(Locale.ROOT, "Outbox contatti: %d in coda, %d DEAD, %d email ricevute dallo stub Mailgun%n",
+                        outbox.getQueueDepth(), outbox.getDeadLetterCount(), mailgun.getReceived());
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Esegue una fase a tasso costante; con recorders null (warm-up) le misure vengono scartate
+     * @return Richieste completate (con o senza errore)
+     */
+    private static long run(HttpClient client, TrafficMix mix, double rate, Duration length, Random random,
+                            Map<String, LatencyRecorder> recorders) throws InterruptedException {
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        double offset = 0;
+
+        while (true) {
+            // Inter-arrivo esponenziale: arrivi di Poisson, non a intervalli regolari
+            offset += -Math.log(1 - random.nextDouble()) * meanIntervalNanos;
+            long intended = start + (long) offset;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            TrafficMix.Scenario scenario = mix.next(random);
+            HttpRequest request = mix.request(scenario, random);
+            LatencyRecorder recorder = recorders != null ? recorders.get(scenario.name()) : null;
+            long sent = System.nanoTime();
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long done = System.nanoTime();
+                        if (recorder == null) {
+                            return;
+                        }
+                        if (error != null || response.statusCode() >= 400) {
+                            recorder.recordError();
+                        } else {
+                            recorder.record((done - intended) / 1000, (done - sent) / 1000);
+                        }
+                    }));
+        }
+
+        // Le richieste ancora in corso appartengono alla fase: si aspetta che finiscano
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            System.out.println("Attenzione: richieste ancora in corso dopo 60 s dalla fine della fase");
+        } catch (Exception e) {
+            // Errori delle singole richieste già contati dai recorder
+        }
+        return inFlight.size();
+    }
+
+    private static void report(Map<String, LatencyRecorder> recorders, long completed, Duration duration) {
+        System.out.println();
+        System.out.println(LatencyRecorder.Summary.header());
+        LatencyRecorder total = new LatencyRecorder();
+        long errors = 0;
+        for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+            LatencyRecorder.Summary summary = entry.getValue().summarize();
+            System.out.println(summary.format(entry.getKey()));
+            errors += summary.errors();
+            entry.getValue().copyTo(total);
+        }
+        System.out.println(total.summarize().format("totale"));
+        System.out.printf(Locale.ROOT, "%nThroughput: %.1f req/s (%d richieste, %d errori)%n",
+                completed / (duration.toNanos() / 1e9), completed, errors);
+    }
+
+    /**
+     * Cursori delle pagine successive della rassegna stampa (al massimo 50 pagine)
+     */
+    private static List<String> pressCursors(PublishedContentStore store) {
+        List<String> cursors = new ArrayList<>();
+        PageCursor cursor = null;
+        while (cursors.size() < 50) {
+            KeysetPage<BlogPost> page = store.getPublishedPostsAfter(cursor, 9);
+            if (!page.hasNext()) {
+                break;
+            }
+            cursors.add(page.nextCursor());
+            cursor = PageCursor.decode(page.nextCursor());
+        }
+        return cursors;
+    }
+
+    private static List<Long> postIds(PublishedContentStore store) {
+        return store.getAllPublishedPosts().stream().map(BlogPost::getId).toList();
+    }
+}
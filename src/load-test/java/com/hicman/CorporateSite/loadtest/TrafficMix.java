@@ -0,0 +1,125 @@
+package com.hicman.CorporateSite.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.function.BiFunction;
+
+/**
+ * Mix di traffico del sito pubblico, con pesi proporzionali alle visite
+ * La rassegna stampa usa i cursori reali (prima pagina più frequente delle successive),
+ * il dettaglio sceglie tra gli articoli pubblicati. I POST del form contatti passano da CSRF
+ * (double submit: cookie XSRF-TOKEN e header con lo stesso valore) e dalla validazione.
+ */
+final class TrafficMix {
+
+    private static final String CSRF_TOKEN = "load-test-csrf-token";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI base;
+    private final List<String> pressCursors;
+    private final List<Long> postIds;
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private final int totalWeight;
+
+    TrafficMix(URI base, List<String> pressCursors, List<Long> postIds) {
+        this.base = base;
+        this.pressCursors = pressCursors;
+        this.postIds = postIds;
+
+        add("home", 28, (random, lang) -> get("/", lang));
+        add("servizi", 10, (random, lang) -> get("/servizi", lang));
+        add("chi-siamo", 8, (random, lang) -> get("/chi-siamo", lang));
+        add("rassegna-stampa", 12, (random, lang) -> get("/rassegna-stampa", lang));
+        add("rassegna-stampa-page", 6, (random, lang) -> pressPage(random, lang));
+        add("rassegna-stampa-detail", 24, (random, lang) -> get("/rassegna-stampa/" + postIds.get(random.nextInt(postIds.size())), lang));
+        add("dicono-di-noi", 10, (random, lang) -> get("/dicono-di-noi", lang));
+        add("contact-post", 2, this::contactPost);
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+    }
+
+    List<Scenario> scenarios() {
+        return scenarios;
+    }
+
+    /**
+     * Scenario successivo secondo i pesi (deterministico a parità di Random)
+     */
+    Scenario next(Random random) {
+        int pick = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            pick -= scenario.weight();
+            if (pick < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    HttpRequest request(Scenario scenario, Random random) {
+        // Circa un visitatore su cinque arriva con il browser in inglese
+        String lang = random.nextInt(5) == 0 ? "en-US,en;q=0.9" : "it-IT,it;q=0.9,en;q=0.8";
+        return scenario.factory().apply(random, lang);
+    }
+
+    private void add(String name, int weight, BiFunction<Random, String, HttpRequest> factory) {
+        scenarios.add(new Scenario(name, weight, factory));
+    }
+
+    private HttpRequest pressPage(Random random, String lang) {
+        if (pressCursors.isEmpty()) {
+            return get("/rassegna-stampa", lang);
+        }
+        // Le pagine vicine all'inizio sono le più visitate
+        int index = (int) Math.min(pressCursors.size() - 1, Math.abs(random.nextGaussian()) * 3);
+        return get("/rassegna-stampa?after=" + pressCursors.get(index), lang);
+    }
+
+    private HttpRequest contactPost(Random random, String lang) {
+        int visitor = random.nextInt(1_000_000);
+        String form = formBody(Map.of(
+                "nome", "Nome" + visitor,
+                "cognome", "Cognome" + visitor,
+                "email", "visitatore" + visitor + "@example.com",
+                "telefono", "+39 02 " + (1_000_000 + visitor),
+                "servizio", "Finanza strutturata",
+                "messaggio", "Richiesta di informazioni generata dal test di carico numero " + visitor + "."));
+
+        String path = random.nextBoolean() ? "/" : "/contact";
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept-Language", lang)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Cookie", "XSRF-TOKEN=" + CSRF_TOKEN)
+                .header("X-XSRF-TOKEN", CSRF_TOKEN)
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    private HttpRequest get(String path, String lang) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "text/html")
+                .header("Accept-Encoding", "identity")
+                .header("Accept-Language", lang)
+                .GET()
+                .build();
+    }
+
+    private static String formBody(Map<String, String> fields) {
+        StringJoiner joiner = new StringJoiner("&");
+        fields.forEach((key, value) -> joiner.add(key + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return joiner.toString();
+    }
+
+    record Scenario(String name, int weight, BiFunction<Random, String, HttpRequest> factory) {
+    }
+}
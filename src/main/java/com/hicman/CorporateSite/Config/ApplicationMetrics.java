@@ -0,0 +1,119 @@
+package com.hicman.CorporateSite.Config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.hicman.CorporateSite.Service.ContactOutboxService;
+import com.hicman.CorporateSite.Service.ContactService;
+import com.hicman.CorporateSite.Service.CssBundleService;
+import com.hicman.CorporateSite.Service.PageCacheService;
+import com.hicman.CorporateSite.Service.RateLimiterService;
+
+/**
+ * Metriche applicative ricavate dai contatori già mantenuti dai service
+ * Lette a ogni scrape: nessun lavoro aggiuntivo sul percorso delle richieste.
+ */
+@Component
+public class ApplicationMetrics implements MeterBinder {
+
+    @Autowired
+    private ContactOutboxService contactOutboxService;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private RateLimiterService rateLimiterService;
+
+    @Autowired
+    private CssBundleService cssBundleService;
+
+    @Autowired
+    private PageCacheService pageCacheService;
+
+    @Autowired
+    private ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindContactOutbox(registry);
+        bindMailgun(registry);
+
+        FunctionCounter.builder("rate.limit.contact.rejected", rateLimiterService, RateLimiterService::getRejectedCount)
+                .description("Invii del form contatti respinti dal rate limiter")
+                .register(registry);
+
+        FunctionCounter.builder("page.cache.requests", pageCacheService, PageCacheService::getHits)
+                .description("Pagine servite dalla cache HTML")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("page.cache.requests", pageCacheService, PageCacheService::getMisses)
+                .description("Pagine servite dalla cache HTML")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("page.cache.size", pageCacheService, PageCacheService::getSizeInBytes)
+                .description("Memoria occupata dalla cache HTML")
+                .baseUnit("bytes")
+                .register(registry);
+
+        for (CssBundleService.BundleReport bundle : cssBundleService.getReport()) {
+            Gauge.builder("css.bundle.size", bundle, CssBundleService.BundleReport::finalBytes)
+                    .description("Dimensione servita del bundle CSS")
+                    .baseUnit("bytes")
+                    .tag("bundle", bundle.name())
+                    .register(registry);
+            Gauge.builder("css.bundle.removed.rules", bundle, CssBundleService.BundleReport::removedRules)
+                    .description("Regole CSS non usate rimosse dal bundle")
+                    .tag("bundle", bundle.name())
+                    .register(registry);
+        }
+
+        // Presente solo con i virtual thread attivi
+        pinningMonitor.ifAvailable(monitor ->
+                FunctionCounter.builder("virtual.threads.pinned", monitor, VirtualThreadPinningMonitor::getPinnedCount)
+                        .description("Virtual thread bloccati sul carrier oltre la soglia")
+                        .register(registry));
+    }
+
+    private void bindContactOutbox(MeterRegistry registry) {
+        Gauge.builder("contact.outbox.queue.depth", contactOutboxService, ContactOutboxService::getQueueDepth)
+                .description("Messaggi del form contatti in attesa di consegna")
+                .register(registry);
+        Gauge.builder("contact.outbox.dead", contactOutboxService, ContactOutboxService::getDeadLetterCount)
+                .description("Messaggi del form contatti non consegnati (stato DEAD)")
+                .register(registry);
+        FunctionCounter.builder("contact.outbox.delivered", contactOutboxService, service -> service.getDeliveryStats().delivered())
+                .description("Messaggi consegnati a Mailgun")
+                .register(registry);
+        FunctionCounter.builder("contact.outbox.failed.attempts", contactOutboxService, service -> service.getDeliveryStats().failedAttempts())
+                .description("Tentativi di consegna falliti")
+                .register(registry);
+        Gauge.builder("contact.outbox.delivery.latency.max", contactOutboxService, service -> service.getDeliveryStats().maxLatencyMillis())
+                .description("Tempo massimo tra invio del form e consegna")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private void bindMailgun(MeterRegistry registry) {
+        FunctionCounter.builder("mailgun.rejected", contactService, service -> service.getMailgunStats().rejected())
+                .description("Invii rifiutati senza chiamare Mailgun (circuit breaker aperto)")
+                .register(registry);
+        // 0 = CLOSED, 1 = HALF_OPEN, 2 = OPEN
+        Gauge.builder("mailgun.circuit.state", contactService, service -> circuitStateValue(service.getMailgunStats().circuitState()))
+                .description("Stato del circuit breaker verso Mailgun")
+                .register(registry);
+    }
+
+    private static double circuitStateValue(String state) {
+        return switch (state) {
+            case "HALF_OPEN" -> 1;
+            case "OPEN" -> 2;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package com.hicman.CorporateSite.Config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.context.IWebContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.standard.expression.Assignation;
+import org.thymeleaf.standard.expression.AssignationSequence;
+import org.thymeleaf.standard.expression.AssignationUtils;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import com.hicman.CorporateSite.Service.FragmentCacheService;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Processor per hc:cached-fragment="template :: selettore"
+ * Sostituisce l'elemento con il frammento renderizzato, memorizzato per lingua e parametri (hc:cache-params)
+ */
+public class CachedFragmentTagProcessor extends AbstractAttributeTagProcessor {
+
+    private static final String ATTR_NAME = "cached-fragment";
+    private static final String PARAMS_ATTR_NAME = "cache-params";
+    private static final int PRECEDENCE = 100; // come th:replace
+
+    private final String dialectPrefix;
+    private final FragmentCacheService fragmentCacheService;
+    private final ObjectProvider<ITemplateEngine> templateEngineProvider;
+
+    public CachedFragmentTagProcessor(String dialectPrefix, FragmentCacheService fragmentCacheService,
+            ObjectProvider<ITemplateEngine> templateEngineProvider) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, ATTR_NAME, true, PRECEDENCE, true);
+        this.dialectPrefix = dialectPrefix;
+        this.fragmentCacheService = fragmentCacheService;
+        this.templateEngineProvider = templateEngineProvider;
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IProcessableElementTag tag, AttributeName attributeName,
+            String attributeValue, IElementTagStructureHandler structureHandler) {
+
+        int separator = attributeValue.indexOf("::");
+        if (separator < 0) {
+            throw new TemplateProcessingException(
+                "Frammento non valido per " + attributeName + ": \"" + attributeValue + "\" (atteso \"template :: selettore\")");
+        }
+        String templateName = attributeValue.substring(0, separator).trim();
+        String selector = attributeValue.substring(separator + 2).trim();
+
+        Map<String, Object> params = evaluateParams(context, tag.getAttributeValue(dialectPrefix, PARAMS_ATTR_NAME));
+
+        String html;
+        if (fragmentCacheService.isEnabled()) {
+            String key = templateName + "::" + selector + "|" + context.getLocale().toLanguageTag() + "|" + params;
+            html = fragmentCacheService.get(key);
+            if (html == null) {
+                html = render(context, templateName, selector, params);
+                fragmentCacheService.put(key, html);
+            }
+        } else {
+            html = render(context, templateName, selector, params);
+        }
+
+        structureHandler.replaceWith(html, false);
+    }
+
+    /**
+     * Valuta i parametri del frammento con la stessa sintassi di th:with (es. activePage='press')
+     */
+    private Map<String, Object> evaluateParams(ITemplateContext context, String paramsValue) {
+        if (paramsValue == null || paramsValue.isBlank()) {
+            return Collections.emptyMap();
+        }
+
+        AssignationSequence assignations = AssignationUtils.parseAssignationSequence(context, paramsValue, false);
+        if (assignations == null) {
+            throw new TemplateProcessingException("Parametri non validi per il frammento: \"" + paramsValue + "\"");
+        }
+
+        Map<String, Object> params = new LinkedHashMap<>();
+        for (Assignation assignation : assignations) {
+            Object name = assignation.getLeft().execute(context);
+            Object value = assignation.getRight().execute(context);
+            params.put(String.valueOf(name), value);
+        }
+        return params;
+    }
+
+    /**
+     * Renderizza il frammento con il template engine, nello stesso contesto web della pagina
+     */
+    private String render(ITemplateContext context, String templateName, String selector, Map<String, Object> params) {
+        IContext renderContext;
+        if (context instanceof IWebContext webContext) {
+            // Le variabili del model sono già attributi della request, basta aggiungere i parametri
+            renderContext = new WebContext(webContext.getExchange(), context.getLocale(), params);
+        } else {
+            Map<String, Object> variables = new HashMap<>();
+            for (String name : context.getVariableNames()) {
+                variables.put(name, context.getVariable(name));
+            }
+            variables.putAll(params);
+            renderContext = new Context(context.getLocale(), variables);
+        }
+
+        return templateEngineProvider.getObject().process(templateName, Set.of(selector), renderContext);
+    }
+}
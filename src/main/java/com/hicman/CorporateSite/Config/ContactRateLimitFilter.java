@@ -0,0 +1,73 @@
+package com.hicman.CorporateSite.Config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.LocaleResolver;
+
+import com.hicman.CorporateSite.Service.RateLimiterService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Limite di frequenza sugli invii del form contatti (POST / e POST /contact)
+ * Risponde 429 prima del binding e della validazione del form, quindi un flood di bot
+ * non arriva né ai controller né all'outbox delle email.
+ */
+@Component
+public class ContactRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactRateLimitFilter.class);
+
+    private static final Set<String> CONTACT_PATHS = Set.of("/", "/contact");
+
+    @Autowired
+    private RateLimiterService rateLimiterService;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private LocaleResolver localeResolver;
+
+    @Value("${rate-limit.contact.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equals(request.getMethod())
+                || !CONTACT_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long retryAfter = rateLimiterService.tryAcquireContact(request.getRemoteAddr(), request.getParameter("email"));
+        if (retryAfter == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        logger.info("Invio form contatti limitato per {} (riprova tra {} s)", request.getRemoteAddr(), retryAfter);
+
+        String message = messageSource.getMessage("contact.form.rate-limited", null, localeResolver.resolveLocale(request));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write(message.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,38 @@
+package com.hicman.CorporateSite.Config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import com.hicman.CorporateSite.Service.CssBundleService;
+
+import java.util.List;
+
+/**
+ * Risolve /css/bundles/{nome}.css sui bundle generati in memoria da CssBundleService
+ * Va registrato dopo VersionResourceResolver, così anche i bundle ricevono l'URL con hash.
+ */
+public class CssBundleResourceResolver implements ResourceResolver {
+
+    private final CssBundleService cssBundleService;
+
+    public CssBundleResourceResolver(CssBundleService cssBundleService) {
+        this.cssBundleService = cssBundleService;
+    }
+
+    @Override
+    public Resource resolveResource(HttpServletRequest request, String requestPath,
+                                    List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource bundle = cssBundleService.getBundle(requestPath);
+        return bundle != null ? bundle : chain.resolveResource(request, requestPath, locations);
+    }
+
+    @Override
+    public String resolveUrlPath(String resourcePath, List<? extends Resource> locations,
+                                 ResourceResolverChain chain) {
+        return cssBundleService.getBundle(resourcePath) != null
+                ? resourcePath
+                : chain.resolveUrlPath(resourcePath, locations);
+    }
+}
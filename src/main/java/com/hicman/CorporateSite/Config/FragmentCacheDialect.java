@@ -0,0 +1,39 @@
+package com.hicman.CorporateSite.Config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.standard.StandardDialect;
+
+import com.hicman.CorporateSite.Service.FragmentCacheService;
+
+import java.util.Set;
+
+/**
+ * Dialect Thymeleaf per i frammenti cacheabili
+ * Uso: {@code <nav hc:cached-fragment="fragments/navbar :: navbar" hc:cache-params="activePage='press'"></nav>}
+ */
+@Component
+public class FragmentCacheDialect extends AbstractProcessorDialect {
+
+    public static final String PREFIX = "hc";
+
+    @Autowired
+    private FragmentCacheService fragmentCacheService;
+
+    // Lazy: il template engine dipende a sua volta dai dialect registrati
+    @Autowired
+    private ObjectProvider<ITemplateEngine> templateEngineProvider;
+
+    public FragmentCacheDialect() {
+        super("Hicman Fragment Cache", PREFIX, StandardDialect.PROCESSOR_PRECEDENCE);
+    }
+
+    @Override
+    public Set<IProcessor> getProcessors(String dialectPrefix) {
+        return Set.of(new CachedFragmentTagProcessor(dialectPrefix, fragmentCacheService, templateEngineProvider));
+    }
+}
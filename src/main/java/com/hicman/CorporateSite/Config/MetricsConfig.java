@@ -0,0 +1,24 @@
+package com.hicman.CorporateSite.Config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Configurazione delle metriche (Micrometer, esportate in formato Prometheus su /actuator/prometheus)
+ * I valori predefiniti sono in metrics.properties, con precedenza inferiore ad application.properties:
+ * porta di management separata, endpoint esposti, istogrammi e statistiche Hibernate.
+ * Le richieste HTTP sono misurate da Spring (http.server.requests, per route e status);
+ * i metodi dei service annotati con @Timed finiscono in hicman.service (tag class e method).
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
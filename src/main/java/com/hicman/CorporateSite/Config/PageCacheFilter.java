@@ -0,0 +1,158 @@
+package com.hicman.CorporateSite.Config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.support.SessionFlashMapManager;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.hicman.CorporateSite.Service.PageCacheService;
+import com.hicman.CorporateSite.Service.PageCacheService.CachedPage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Filtro per la cache HTML delle pagine statiche (home, servizi, chi siamo)
+ * La chiave è composta da path e lingua risolta dal LocaleResolver (cookie "lang").
+ * Gira dopo la catena di Spring Security, quindi header di sicurezza e token CSRF sono già disponibili.
+ */
+@Component
+public class PageCacheFilter extends OncePerRequestFilter {
+
+    private static final String FLASH_MAPS_SESSION_ATTRIBUTE = SessionFlashMapManager.class.getName() + ".FLASH_MAPS";
+    private static final String CSRF_FIELD_MARKER = "name=\"_csrf\"";
+    // La pagina cambia con la compressione e con la lingua scelta nel cookie "lang"
+    private static final String VARY_HEADERS = "Accept-Encoding, Cookie";
+
+    @Autowired
+    private PageCacheService pageCacheService;
+
+    @Autowired
+    private LocaleResolver localeResolver;
+
+    @Value("${page-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${page-cache.paths:/,/servizi,/chi-siamo}")
+    private String[] cacheablePaths;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"GET".equals(request.getMethod())) {
+            return true;
+        }
+        // ?lang=xx deve passare dal LocaleChangeInterceptor
+        if (request.getQueryString() != null) {
+            return true;
+        }
+        if (!Set.of(cacheablePaths).contains(getPath(request))) {
+            return true;
+        }
+        // Messaggi flash (es. conferma invio form contatti) richiedono il render
+        return hasFlashAttributes(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Locale locale = localeResolver.resolveLocale(request);
+        String key = getPath(request) + "|" + locale.toLanguageTag();
+
+        CachedPage page = pageCacheService.get(key);
+        if (page != null) {
+            setVariantHeaders(response, locale);
+            writeCachedPage(page, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK
+                && contentType != null && contentType.startsWith("text/html")) {
+            byte[] body = wrapper.getContentAsByteArray();
+            String csrfToken = null;
+            if (new String(body, StandardCharsets.UTF_8).contains(CSRF_FIELD_MARKER)) {
+                csrfToken = getCsrfToken(request);
+            }
+            pageCacheService.put(key, pageCacheService.createPage(body, contentType, csrfToken));
+        }
+
+        setVariantHeaders(wrapper, locale);
+        wrapper.setHeader("X-Page-Cache", "MISS");
+        wrapper.copyBodyToResponse();
+    }
+
+    // ==================== UTILITY METHODS ====================
+
+    private void writeCachedPage(CachedPage page, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(page.getContentType());
+        response.setHeader("X-Page-Cache", "HIT");
+
+        // Senza controller la metrica http.server.requests avrebbe uri=UNKNOWN: i path in cache sono già la route
+        ServerHttpObservationFilter.findObservationContext(request)
+                .ifPresent(context -> context.setPathPattern(getPath(request)));
+
+        if (!page.needsCsrfToken() && acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(page.getGzipBody().length);
+            response.getOutputStream().write(page.getGzipBody());
+            return;
+        }
+
+        // Il token viene generato/letto ora, così il cookie XSRF-TOKEN viene impostato per questo visitatore
+        String csrfToken = page.needsCsrfToken() ? getCsrfToken(request) : "";
+        byte[] tokenBytes = csrfToken != null ? csrfToken.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        response.setContentLength(page.getContentLength(tokenBytes));
+        page.writeTo(response.getOutputStream(), tokenBytes);
+    }
+
+    /**
+     * Header identici per HIT e MISS, così una cache condivisa non serve una lingua a tutti
+     */
+    private void setVariantHeaders(HttpServletResponse response, Locale locale) {
+        response.setHeader(HttpHeaders.VARY, VARY_HEADERS);
+        response.setHeader(HttpHeaders.CONTENT_LANGUAGE, locale.toLanguageTag());
+    }
+
+    private String getPath(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private boolean hasFlashAttributes(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return false;
+        }
+        Object flashMaps = session.getAttribute(FLASH_MAPS_SESSION_ATTRIBUTE);
+        return flashMaps instanceof Collection<?> maps && !maps.isEmpty();
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private String getCsrfToken(HttpServletRequest request) {
+        CsrfToken token = (CsrfToken) request.getAttribute(CsrfToken.class.getName());
+        return token != null ? token.getToken() : null;
+    }
+}
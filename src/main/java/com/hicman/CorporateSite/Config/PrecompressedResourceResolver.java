@@ -0,0 +1,116 @@
+package com.hicman.CorporateSite.Config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Prima metà della compressione delle risorse statiche (vedi PrecompressedResourceTransformer)
+ * Se il client accetta gzip, la risorsa comprimibile viene marcata come GzipCandidate: il transformer
+ * la comprime dopo le altre trasformazioni (es. link riscritti nei CSS), una sola volta.
+ * Va registrato per primo nella resource chain. La cache della chain distingue già le richieste
+ * per Accept-Encoding, quindi versione compressa e non compressa sono memorizzate separatamente.
+ */
+public class PrecompressedResourceResolver implements ResourceResolver {
+
+    // Formati testuali o con molta ridondanza (i font TrueType/OpenType non sono già compressi)
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of("css", "js", "svg", "xml", "txt", "json", "ttf", "otf");
+
+    @Override
+    public Resource resolveResource(HttpServletRequest request, String requestPath,
+                                    List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null || request == null || !isCompressible(resource) || !acceptsGzip(request)) {
+            return resource;
+        }
+        return new GzipCandidate(resource);
+    }
+
+    @Override
+    public String resolveUrlPath(String resourcePath, List<? extends Resource> locations,
+                                 ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourcePath, locations);
+    }
+
+    static boolean isCompressible(Resource resource) {
+        String extension = StringUtils.getFilenameExtension(resource.getFilename());
+        return extension != null && COMPRESSIBLE_EXTENSIONS.contains(extension.toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // gzip;q=0 significa "non accettato"
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Risorsa da comprimere con gzip: stesso contenuto dell'originale, descrizione diversa
+     * perché la cache dei transformer (indicizzata per risorsa) non la confonda con la versione non compressa.
+     */
+    static class GzipCandidate extends AbstractResource {
+
+        private final Resource original;
+
+        GzipCandidate(Resource original) {
+            this.original = original;
+        }
+
+        Resource getOriginal() {
+            return original;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return original.getInputStream();
+        }
+
+        @Override
+        public boolean exists() {
+            return original.exists();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return original.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return original.lastModified();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return original.createRelative(relativePath);
+        }
+
+        @Override
+        public String getFilename() {
+            return original.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return "gzip [" + original.getDescription() + "]";
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.hicman.CorporateSite.Config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceTransformer;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+
+import com.hicman.CorporateSite.Config.PrecompressedResourceResolver.GzipCandidate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Comprime con gzip (livello massimo) le risorse marcate da PrecompressedResourceResolver
+ * Va registrato per primo tra i transformer: esegue la chain e comprime il risultato finale.
+ * Il risultato resta nella cache della resource chain, quindi ogni risorsa viene compressa una volta sola
+ * invece che a ogni richiesta. Tutte le risposte comprimibili portano "Vary: Accept-Encoding".
+ */
+public class PrecompressedResourceTransformer implements ResourceTransformer {
+
+    // Sotto questa dimensione l'header gzip e il costo di decompressione non valgono il risparmio
+    private static final int MIN_SIZE = 1024;
+
+    @Override
+    public Resource transform(HttpServletRequest request, Resource resource,
+                              ResourceTransformerChain transformerChain) throws IOException {
+        Resource transformed = transformerChain.transform(request, resource);
+        if (!PrecompressedResourceResolver.isCompressible(resource)) {
+            return transformed;
+        }
+
+        byte[] content;
+        try (InputStream in = transformed.getInputStream()) {
+            content = StreamUtils.copyToByteArray(in);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (transformed instanceof HttpResource httpResource) {
+            headers.putAll(httpResource.getResponseHeaders());
+        }
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (resource instanceof GzipCandidate && content.length >= MIN_SIZE) {
+            byte[] compressed = gzip(content);
+            if (compressed.length < content.length) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                return new EncodedResource(compressed, transformed, headers);
+            }
+        }
+        return new EncodedResource(content, transformed, headers);
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Contenuto finale in memoria con gli header di risposta (Content-Encoding, Vary, ETag della versione)
+     */
+    private static class EncodedResource extends ByteArrayResource implements HttpResource {
+
+        private final String filename;
+        private final long lastModified;
+        private final HttpHeaders headers;
+
+        EncodedResource(byte[] content, Resource original, HttpHeaders headers) {
+            super(content, original.getDescription());
+            this.filename = original.getFilename();
+            this.lastModified = lastModifiedOf(original);
+            this.headers = headers;
+        }
+
+        private static long lastModifiedOf(Resource original) {
+            try {
+                return original.lastModified();
+            } catch (IOException e) {
+                // Risorsa senza data (es. generata in memoria): nessun Last-Modified
+                return -1;
+            }
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.hicman.CorporateSite.Config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Schema del database gestito dalle migrazioni Flyway (src/main/resources/db/migration)
+ * Flyway gira prima di Hibernate e di JdbcTemplate; Hibernate si limita a verificare che tabelle e colonne
+ * corrispondano alle entity e, se non è così, blocca l'avvio invece di modificare lo schema.
+ * Le modifiche allo schema vanno in un nuovo file V<n>__descrizione.sql, mai nei file già applicati.
+ */
+@Configuration
+@PropertySource("classpath:schema.properties")
+public class SchemaConfig {
+
+    /**
+     * validate anche se application.properties imposta ancora ddl-auto=update
+     */
+    @Bean
+    public HibernatePropertiesCustomizer schemaValidationCustomizer() {
+        return properties -> properties.put(AvailableSettings.HBM2DDL_AUTO, "validate");
+    }
+}
@@ -0,0 +1,139 @@
+package com.hicman.CorporateSite.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement SQL, righe e tempo SQL di ogni richiesta HTTP
+ * Sempre esportati come metriche per route (sql.request.*); con sql-stats.response-headers=true
+ * (solo sviluppo: la risposta viene bufferizzata per scrivere gli header alla fine) anche come
+ * header X-SQL-Statements, X-SQL-Rows e X-SQL-Time-Ms.
+ * Logga un warning quando una richiesta supera il budget di statement o ripete lo stesso
+ * statement più volte (tipico N+1: una query per ogni elemento di una lista).
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    // Lunghezza massima dell'SQL riportato nel log
+    private static final int LOGGED_SQL_LENGTH = 300;
+
+    @Value("${sql-stats.response-headers:false}")
+    private boolean responseHeaders;
+
+    @Value("${sql-stats.statement-budget:20}")
+    private int statementBudget;
+
+    @Value("${sql-stats.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        SqlStatementStats stats = SqlStatementStats.start();
+        try {
+            if (!responseHeaders) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            try {
+                filterChain.doFilter(request, wrapper);
+            } finally {
+                wrapper.setHeader("X-SQL-Statements", String.valueOf(stats.getStatements()));
+                wrapper.setHeader("X-SQL-Rows", String.valueOf(stats.getRows()));
+                wrapper.setHeader("X-SQL-Time-Ms", String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getNanos())));
+                wrapper.copyBodyToResponse();
+            }
+        } finally {
+            SqlStatementStats.clear();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        String uri = routeOf(request);
+        String method = request.getMethod();
+
+        DistributionSummary.builder("sql.request.statements")
+                .description("Statement SQL eseguiti per richiesta HTTP")
+                .tag("uri", uri)
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("sql.request.rows")
+                .description("Righe lette o modificate per richiesta HTTP")
+                .tag("uri", uri)
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("sql.request.time")
+                .description("Tempo passato in JDBC per richiesta HTTP")
+                .tag("uri", uri)
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatements() > statementBudget) {
+            Counter.builder("sql.request.budget.exceeded")
+                    .description("Richieste oltre il budget di statement SQL")
+                    .tag("uri", uri)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("{} {}: {} statement SQL (budget {}), {} righe, {} ms in JDBC",
+                    method, request.getRequestURI(), stats.getStatements(), statementBudget,
+                    stats.getRows(), TimeUnit.NANOSECONDS.toMillis(stats.getNanos()));
+        }
+
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        if (repeated != null && repeated.getValue() >= repeatThreshold) {
+            logger.warn("{} {}: possibile N+1, statement eseguito {} volte: {}",
+                    method, request.getRequestURI(), repeated.getValue(), abbreviate(repeated.getKey()));
+        }
+    }
+
+    /**
+     * Route della richiesta (es. /rassegna-stampa/{id}), come nel tag uri di http.server.requests
+     */
+    private static String routeOf(HttpServletRequest request) {
+        String pattern = ServerHttpObservationFilter.findObservationContext(request)
+                .map(ServerRequestObservationContext::getPathPattern)
+                .orElse(null);
+        if (pattern == null) {
+            Object attribute = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            pattern = attribute instanceof String value ? value : "UNKNOWN";
+        }
+        return pattern;
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() > LOGGED_SQL_LENGTH ? sql.substring(0, LOGGED_SQL_LENGTH) + "..." : sql;
+    }
+}
@@ -0,0 +1,74 @@
+package com.hicman.CorporateSite.Config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statement SQL eseguiti dalla richiesta HTTP corrente (uno per thread, aperto da SqlStatementFilter)
+ * Fuori da una richiesta (job schedulati, outbox, avvio) non c'è nulla da contare.
+ */
+final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long nanos;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    void recordExecution(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        if (sql != null) {
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void addRows(long count) {
+        if (count > 0) {
+            rows += count;
+        }
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Righe lette dai ResultSet più righe modificate
+     */
+    long getRows() {
+        return rows;
+    }
+
+    long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Statement identico eseguito più volte (es. lo stesso SELECT per ogni elemento di una lista: N+1)
+     */
+    Map.Entry<String, Integer> mostRepeated() {
+        Map.Entry<String, Integer> max = null;
+        for (Map.Entry<String, Integer> entry : executionsBySql.entrySet()) {
+            if (max == null || entry.getValue() > max.getValue()) {
+                max = entry;
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,129 @@
+package com.hicman.CorporateSite.Config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource che conta statement, righe e tempo SQL della richiesta corrente (vedi SqlStatementStats)
+ * Connessioni e statement vengono avvolti solo dentro una richiesta HTTP; altrove restano quelli del pool.
+ * unwrap/isWrapperFor passano al pool (DelegatingDataSource), così le metriche Hikari continuano a funzionare.
+ */
+final class StatementCountingDataSource extends DelegatingDataSource {
+
+    StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        if (SqlStatementStats.current() == null) {
+            return connection;
+        }
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement/prepareCall: l'SQL è il primo argomento; createStatement: arriva con execute
+                String sql = method.getName().startsWith("prepare") && args != null && args[0] instanceof String s ? s : null;
+                return wrapStatement(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private static Statement wrapStatement(Statement statement, String preparedSql) {
+        Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+
+        return proxy(type, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = invoke(target, method, args);
+                return "getResultSet".equals(name) && result instanceof ResultSet resultSet ? wrapResultSet(resultSet) : result;
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            long start = System.nanoTime();
+            Object result = invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+
+            SqlStatementStats stats = SqlStatementStats.current();
+            if (stats != null) {
+                stats.recordExecution(sql, elapsed);
+                if (result instanceof Integer updated) {
+                    stats.addRows(updated);
+                } else if (result instanceof Long updated) {
+                    stats.addRows(updated);
+                } else if (result instanceof int[] batch) {
+                    for (int updated : batch) {
+                        stats.addRows(updated);
+                    }
+                } else if (result instanceof long[] batch) {
+                    for (long updated : batch) {
+                        stats.addRows(updated);
+                    }
+                }
+            }
+            return result instanceof ResultSet resultSet ? wrapResultSet(resultSet) : result;
+        });
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet) {
+        return proxy(ResultSet.class, resultSet, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                SqlStatementStats stats = SqlStatementStats.current();
+                if (stats != null) {
+                    stats.addRows(1);
+                }
+            }
+            return result;
+        });
+    }
+
+    // ==================== PROXY ====================
+
+    @FunctionalInterface
+    private interface Interceptor<T> {
+        Object intercept(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<? extends T> type, T target, Interceptor<T> interceptor) {
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "unwrap", "isWrapperFor" -> invoke(target, method, args);
+            default -> interceptor.intercept(target, method, args);
+        };
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
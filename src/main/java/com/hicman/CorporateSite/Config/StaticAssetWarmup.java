@@ -0,0 +1,56 @@
+package com.hicman.CorporateSite.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import com.hicman.CorporateSite.Service.CssBundleService;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Risoluzione all'avvio degli URL versionati degli asset statici (hash del contenuto)
+ * Serve solo a riscaldare la resource chain: gli hash restano nella sua cache
+ * e la prima pagina servita non paga la lettura dei file. I template continuano a usare @{...}.
+ */
+@Component
+public class StaticAssetWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaticAssetWarmup.class);
+
+    private static final List<String> ASSET_DIRECTORIES = List.of("css", "fonts");
+
+    @Autowired
+    private ResourceUrlProvider resourceUrlProvider;
+
+    @Autowired
+    private CssBundleService cssBundleService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        int versioned = 0;
+
+        for (String directory : ASSET_DIRECTORIES) {
+            for (Resource resource : resolver.getResources("classpath:/static/" + directory + "/*")) {
+                versioned += resolve("/" + directory + "/" + resource.getFilename());
+            }
+        }
+        for (String bundle : cssBundleService.getBundles().keySet()) {
+            versioned += resolve("/css/" + bundle);
+        }
+
+        logger.info("Resource chain riscaldata: {} asset versionati", versioned);
+    }
+
+    private int resolve(String path) {
+        return resourceUrlProvider.getForLookupPath(path) != null ? 1 : 0;
+    }
+}
@@ -0,0 +1,111 @@
+package com.hicman.CorporateSite.Config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnostica del pinning dei virtual thread (attiva solo con spring.threads.virtual.enabled=true)
+ * Ascolta in-process l'evento JFR jdk.VirtualThreadPinned: un virtual thread bloccato dentro un
+ * synchronized (es. in H2, nel driver JDBC o nel pool) trattiene il carrier thread.
+ * Ogni punto di pinning viene loggato una volta con lo stack, poi solo conteggiato.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // Frame dello stack riportati nel log
+    private static final int LOGGED_FRAMES = 12;
+
+    @Value("${virtual-threads.pinning.threshold:20ms}")
+    private Duration threshold;
+
+    private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+    private final LongAdder pinnedTotal = new LongAdder();
+
+    private RecordingStream stream;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("Monitoraggio pinning dei virtual thread attivo (soglia {} ms)", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Pinning rilevati dall'avvio
+     */
+    public long getPinnedCount() {
+        return pinnedTotal.sum();
+    }
+
+    /**
+     * Pinning rilevati per punto di codice (primo frame applicativo o di libreria)
+     */
+    public Map<String, Long> getPinnedBySite() {
+        return pinnedBySite.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTotal.increment();
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String site = pinningSite(frames);
+
+        LongAdder counter = pinnedBySite.computeIfAbsent(site, key -> new LongAdder());
+        counter.increment();
+        if (counter.sum() == 1) {
+            String stack = frames.stream()
+                    .limit(LOGGED_FRAMES)
+                    .map(VirtualThreadPinningMonitor::describe)
+                    .collect(Collectors.joining("\n    at "));
+            logger.warn("Virtual thread bloccato sul carrier per {} ms in {}\n    at {}",
+                    event.getDuration().toMillis(), site, stack);
+        }
+    }
+
+    /**
+     * Primo frame fuori dal JDK: è lì che si trova il synchronized o la chiamata nativa da correggere
+     */
+    private static String pinningSite(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return describe(frame);
+            }
+        }
+        return frames.isEmpty() ? "sconosciuto" : describe(frames.get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
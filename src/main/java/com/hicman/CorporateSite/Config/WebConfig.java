@@ -1,30 +1,45 @@
 package com.hicman.CorporateSite.Config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceChainRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.i18n.CookieLocaleResolver;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
+import org.springframework.web.servlet.resource.CssLinkResourceTransformer;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import com.hicman.CorporateSite.Service.CssBundleService;
 
 import java.time.Duration;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configurazione Web per Spring MVC
  * Gestisce i18n (internazionalizzazione) e risorse statiche
+ * proxy.properties: header X-Forwarded-* di Nginx accettati solo dai proxy fidati
  */
 @Configuration
+@PropertySource("classpath:proxy.properties")
 public class WebConfig implements WebMvcConfigurer {
 
-    @Value("${file.upload-dir}")
+    @Value("${file.upload-dir:uploads}")
     private String uploadDir;
 
+    @Autowired
+    private CssBundleService cssBundleService;
+
     /**
      * Configura il LocaleResolver per gestire la lingua
      * Usa i cookie per mantenere la preferenza dell'utente
@@ -77,12 +92,50 @@ public class WebConfig implements WebMvcConfigurer {
     }
 
     /**
-     * Configura le risorse statiche (immagini caricate)
+     * Configura le risorse statiche (CSS, font e immagini caricate)
      */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // CSS e font con URL versionati sul contenuto (es. /css/press-<md5>.css):
+        // a un URL corrisponde sempre lo stesso contenuto, quindi il browser non deve mai rivalidarlo
+        // I bundle (/css/bundles/*.css) sono generati all'avvio da CssBundleService
+        addVersionedResources(registry, "/css/**", "classpath:/static/css/")
+                .addResolver(new CssBundleResourceResolver(cssBundleService));
+        addVersionedResources(registry, "/fonts/**", "classpath:/static/fonts/");
+
+        // sitemap.xml e robots.txt: URL fissi, quindi cache breve; compressi una volta come CSS e font
+        registry.addResourceHandler("/sitemap.xml", "/robots.txt")
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
+                .resourceChain(true)
+                .addResolver(new PrecompressedResourceResolver())
+                .addTransformer(new PrecompressedResourceTransformer());
+
         // Espone la cartella uploads per le immagini caricate
+        // I nomi sono hash del contenuto (o UUID per i file precedenti): un URL non cambia mai contenuto
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadDir + "/");
+                .addResourceLocations("file:" + uploadDir + "/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+    }
+
+    /**
+     * Riscrive gli URL delle risorse statiche generati da th:href/th:src nella versione con hash
+     */
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+
+    private ResourceChainRegistration addVersionedResources(ResourceHandlerRegistry registry, String pattern, String location) {
+        return registry.addResourceHandler(pattern)
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .resourceChain(true)
+                // Compressione gzip una tantum del contenuto finale (dopo la riscrittura dei link)
+                .addResolver(new PrecompressedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                .addTransformer(new PrecompressedResourceTransformer())
+                // Aggiorna anche i riferimenti interni ai CSS (url(...) dei font, @import)
+                .addTransformer(new CssLinkResourceTransformer());
     }
 }
\ No newline at end of file
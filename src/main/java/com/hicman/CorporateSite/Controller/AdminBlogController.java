@@ -2,10 +2,6 @@ package com.hicman.CorporateSite.Controller;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -15,6 +11,8 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.hicman.CorporateSite.Model.BlogPost;
 import com.hicman.CorporateSite.Service.BlogService;
+import com.hicman.CorporateSite.Service.KeysetPage;
+import com.hicman.CorporateSite.Service.PageCursor;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -32,31 +30,38 @@ public class AdminBlogController {
 
     /**
      * Lista tutti i post (pubblicati e bozze) per l'admin
+     * Paginazione keyset su (createdAt, id): costo costante anche con archivi grandi
      */
     @GetMapping
     public String listAllPosts(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
             @RequestParam(defaultValue = "15") int size,
             @RequestParam(required = false) String status,
             Model model) {
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
-        Pageable pageable = PageRequest.of(page, size, sort);
+        if (size < 1) size = 15;
+        if (size > 100) size = 100;
 
-        Page<BlogPost> blogPage;
+        Boolean published = null;
+        long totalItems;
 
         if ("published".equals(status)) {
-            blogPage = blogService.getPublishedPosts(pageable);
+            published = true;
+            totalItems = blogService.countPublishedPosts();
         } else if ("draft".equals(status)) {
-            blogPage = blogService.getDraftPosts(pageable);
+            published = false;
+            totalItems = blogService.countDraftPosts();
         } else {
-            blogPage = blogService.getAllPosts(pageable);
+            totalItems = blogService.countAllPosts();
         }
 
-        model.addAttribute("posts", blogPage.getContent());
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", blogPage.getTotalPages());
-        model.addAttribute("totalItems", blogPage.getTotalElements());
+        KeysetPage<BlogPost> blogPage = blogService.getPostsForAdmin(
+                published, PageCursor.decode(after), PageCursor.decode(before), size);
+
+        model.addAttribute("posts", blogPage.content());
+        model.addAttribute("blogPage", blogPage);
+        model.addAttribute("totalItems", totalItems);
         model.addAttribute("status", status);
         model.addAttribute("pageTitle", "Gestione Blog");
 
@@ -137,23 +142,12 @@ public class AdminBlogController {
 
 
             // ===== GESTIONE IMMAGINE =====
-            if (removeImage && post.getImageUrl() != null) {
-                blogService.deleteImage(post.getImageUrl());
-                post.setImageUrl(null);
-            }
-
-            if (imageFile != null && !imageFile.isEmpty()) {
-                if (!isValidImageFile(imageFile)) {
-                    model.addAttribute("errorMessage", "Formato immagine non valido. Sono accettati: JPG, PNG, WEBP (max 10MB)");
-                    model.addAttribute("pageTitle", post.getId() == null ? "Nuovo Articolo" : "Modifica Articolo");
-                    model.addAttribute("isEdit", post.getId() != null);
-                    return "admin/blog/form";
-                }
-                if (post.getImageUrl() != null && !post.getImageUrl().isEmpty()) {
-                    blogService.deleteImage(post.getImageUrl());
-                }
-                String imageUrl = blogService.saveImage(imageFile);
-                post.setImageUrl(imageUrl);
+            // Sostituzione e rimozione avvengono nel service, nella transazione del salvataggio
+            if (imageFile != null && !imageFile.isEmpty() && !isValidImageFile(imageFile)) {
+                model.addAttribute("errorMessage", "Formato immagine non valido. Sono accettati: JPG, PNG, WEBP (max 10MB)");
+                model.addAttribute("pageTitle", post.getId() == null ? "Nuovo Articolo" : "Modifica Articolo");
+                model.addAttribute("isEdit", post.getId() != null);
+                return "admin/blog/form";
             }
 
             // Imposta la data di pubblicazione se il post è pubblicato e non ne ha una
@@ -164,7 +158,8 @@ public class AdminBlogController {
             }
 
             // ===== SALVA IL POST =====
-            BlogPost savedPost = blogService.savePost(post);
+            // L'eventuale nuova immagine viene salvata nella stessa transazione del post
+            BlogPost savedPost = blogService.savePostWithImage(post, imageFile, removeImage);
 
             // Messaggio di successo
             String message = (savedPost.getId() == null) ? "Articolo creato" : "Articolo aggiornato";
@@ -199,26 +194,15 @@ public class AdminBlogController {
     @PostMapping("/toggle-publish/{id}")
     public String togglePublish(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
-            Optional<BlogPost> postOpt = blogService.getPostById(id);
-
-            if (postOpt.isEmpty()) {
-                redirectAttributes.addFlashAttribute("errorMessage", "Articolo non trovato");
-                return "redirect:/admin/blog";
-            }
-
-            BlogPost post = postOpt.get();
-            post.setPublished(!post.isPublished());
-
-            if (post.isPublished() && post.getPublishedDate() == null) {
-                post.setPublishedDate(LocalDateTime.now());
-            }
-
-            blogService.savePost(post);
+            // Il service legge lo stato precedente e aggiorna il contatore dei pubblicati
+            BlogPost post = blogService.togglePublish(id);
 
             redirectAttributes.addFlashAttribute("successMessage",
                     "Articolo " + (post.isPublished() ? "pubblicato" : "rimosso dalla pubblicazione")
                             + " con successo!");
 
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Articolo non trovato");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage",
                     "Errore: " + e.getMessage());
@@ -233,20 +217,12 @@ public class AdminBlogController {
     @PostMapping("/delete/{id}")
     public String deletePost(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
-            Optional<BlogPost> post = blogService.getPostById(id);
-
-            if (post.isEmpty()) {
-                redirectAttributes.addFlashAttribute("errorMessage", "Articolo non trovato");
-                return "redirect:/admin/blog";
-            }
-
-            if (post.get().getImageUrl() != null && !post.get().getImageUrl().isEmpty()) {
-                blogService.deleteImage(post.get().getImageUrl());
-            }
-
+            // Il service rilascia anche l'immagine, nella transazione dell'eliminazione
             blogService.deletePost(id);
             redirectAttributes.addFlashAttribute("successMessage", "Articolo eliminato con successo!");
 
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Articolo non trovato");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage",
                     "Errore durante l'eliminazione: " + e.getMessage());
@@ -270,13 +246,6 @@ public class AdminBlogController {
                 return "redirect:/admin/blog";
             }
 
-            for (Long id : postIds) {
-                Optional<BlogPost> post = blogService.getPostById(id);
-                if (post.isPresent() && post.get().getImageUrl() != null) {
-                    blogService.deleteImage(post.get().getImageUrl());
-                }
-            }
-
             int deletedCount = blogService.deletePosts(postIds);
             redirectAttributes.addFlashAttribute("successMessage",
                     deletedCount + " articolo/i eliminato/i con successo!");
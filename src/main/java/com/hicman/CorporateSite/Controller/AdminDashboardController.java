@@ -6,14 +6,15 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
 
 import javax.sql.DataSource;
 
+import org.flywaydb.core.Flyway;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -28,6 +29,13 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.hicman.CorporateSite.Service.BlogService;
+import com.hicman.CorporateSite.Service.ContentCounterService;
+import com.hicman.CorporateSite.Service.FileReferenceService;
+import com.hicman.CorporateSite.Service.FileStorageService;
+import com.hicman.CorporateSite.Service.FileStorageService.FileSignature;
+import com.hicman.CorporateSite.Service.FragmentCacheService;
+import com.hicman.CorporateSite.Service.PageCacheService;
+import com.hicman.CorporateSite.Service.PublishedContentStore;
 import com.hicman.CorporateSite.Service.TestimonialService;
 
 import jakarta.servlet.http.HttpServletResponse;
@@ -46,6 +54,27 @@ public class AdminDashboardController {
     @Autowired
     private TestimonialService testimonialService;
 
+    @Autowired
+    private ContentCounterService contentCounterService;
+
+    @Autowired
+    private FileReferenceService fileReferenceService;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private PublishedContentStore publishedContentStore;
+
+    @Autowired
+    private PageCacheService pageCacheService;
+
+    @Autowired
+    private FragmentCacheService fragmentCacheService;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -55,6 +84,9 @@ public class AdminDashboardController {
     @Value("${admin.password}")
     private String adminPassword;
 
+    @Value("${db.restore.max-size-mb:512}")
+    private long maxRestoreSizeMb;
+
     /**
      * Dashboard principale admin
      * Mostra statistiche e ultimi contenuti creati
@@ -178,7 +210,9 @@ public class AdminDashboardController {
 
         try {
             // 1. Salva il file caricato come DB temporaneo separato
-            Files.copy(dbFile.getInputStream(), tempMvDb, StandardCopyOption.REPLACE_EXISTING);
+            //    (spostando il file già ricevuto dal container, dopo aver verificato dimensione e firma H2)
+            fileStorageService.receiveFile(dbFile, tempMvDb, maxRestoreSizeMb * 1024 * 1024,
+                    EnumSet.of(FileSignature.H2_DATABASE));
 
             // 2. Esporta il DB caricato in SQL tramite comando H2 nativo SCRIPT TO
             //    (connessione separata al file temporaneo, non interferisce con il DB principale)
@@ -194,6 +228,13 @@ public class AdminDashboardController {
                 conn.createStatement().execute("RUNSCRIPT FROM '" + scriptPathSql + "'");
             }
 
+            // 4. Porta lo schema del backup all'ultima migrazione (tabelle, colonne e indici mancanti),
+            //    poi riallinea contatori, riferimenti ai file e snapshot pubblico ai dati ripristinati
+            flyway.migrate();
+            contentCounterService.reconcile();
+            fileReferenceService.reconcile();
+            publishedContentStore.rebuild();
+
             redirectAttributes.addFlashAttribute("dbUploadSuccess",
                 "Database ripristinato con successo. Tutti i dati sono stati aggiornati.");
 
@@ -208,6 +249,19 @@ public class AdminDashboardController {
         return "redirect:/admin";
     }
 
+    /**
+     * Svuota le cache di rendering (pagine e frammenti).
+     * Da usare dopo modifiche ai file messages_*.properties o ai template senza riavvio.
+     */
+    @PostMapping("/cache/clear")
+    public String clearCaches(RedirectAttributes redirectAttributes) {
+        pageCacheService.invalidateAll();
+        fragmentCacheService.invalidateAll();
+
+        redirectAttributes.addFlashAttribute("cacheSuccess", "Cache delle pagine svuotata con successo.");
+        return "redirect:/admin";
+    }
+
     /**
      * Pagina di login admin
      *
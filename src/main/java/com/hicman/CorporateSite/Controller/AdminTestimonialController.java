@@ -10,7 +10,6 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.hicman.CorporateSite.Model.Testimonial;
-import com.hicman.CorporateSite.Service.FileStorageService;
 import com.hicman.CorporateSite.Service.TestimonialService;
 
 import java.io.IOException;
@@ -25,9 +24,6 @@ public class AdminTestimonialController {
     @Autowired
     private TestimonialService testimonialService;
 
-    @Autowired
-    private FileStorageService fileStorageService;
-
     /**
      * Lista tutti i testimonial con filtro per stato
      * GET /admin/testimonials
@@ -138,32 +134,14 @@ public class AdminTestimonialController {
         }
         
         try {
-            // ===== GESTIONE RIMOZIONE LOGO =====
-            if ("true".equals(removeLogo) && testimonial.getLogoUrl() != null) {
-                // Elimina il logo esistente dal filesystem
-                fileStorageService.deleteFile(testimonial.getLogoUrl());
-                testimonial.setLogoUrl(null);
-            }
-            
-            // ===== GESTIONE UPLOAD NUOVO LOGO =====
-            if (logoFile != null && !logoFile.isEmpty()) {
-                // Valida il file
-                if (!isValidImageFile(logoFile)) {
-                    model.addAttribute("errorMessage", 
-                        "Formato logo non valido. Sono accettati: PNG, JPG (max 10MB)");
-                    model.addAttribute("pageTitle", testimonial.getId() == null ? "Nuova Testimonianza" : "Modifica Testimonianza");
-                    model.addAttribute("isEdit", testimonial.getId() != null);
-                    return "admin/testimonials/form";
-                }
-                
-                // Se c'era già un logo, eliminalo prima
-                if (testimonial.getLogoUrl() != null && !testimonial.getLogoUrl().isEmpty()) {
-                    fileStorageService.deleteFile(testimonial.getLogoUrl());
-                }
-                
-                // Salva il nuovo logo nella cartella "testimonials"
-                String logoUrl = fileStorageService.storeFile(logoFile, "testimonials");
-                testimonial.setLogoUrl(logoUrl);
+            // ===== GESTIONE LOGO =====
+            // Sostituzione e rimozione avvengono nel service, nella transazione del salvataggio
+            if (logoFile != null && !logoFile.isEmpty() && !isValidImageFile(logoFile)) {
+                model.addAttribute("errorMessage", 
+                    "Formato logo non valido. Sono accettati: PNG, JPG (max 10MB)");
+                model.addAttribute("pageTitle", testimonial.getId() == null ? "Nuova Testimonianza" : "Modifica Testimonianza");
+                model.addAttribute("isEdit", testimonial.getId() != null);
+                return "admin/testimonials/form";
             }
             
             // ===== GESTIONE PUBBLICAZIONE =====
@@ -185,7 +163,9 @@ public class AdminTestimonialController {
             }
             
             // ===== SALVA IL TESTIMONIAL =====
-            Testimonial savedTestimonial = testimonialService.saveTestimonial(testimonial);
+            // L'eventuale nuovo logo viene salvato nella cartella "testimonials" nella stessa transazione
+            Testimonial savedTestimonial = testimonialService.saveTestimonialWithLogo(testimonial, logoFile,
+                    "true".equals(removeLogo));
             
             // Messaggio di successo
             String message = testimonial.getId() == null ? "Testimonianza creata" : "Testimonianza aggiornata";
@@ -225,26 +205,14 @@ public class AdminTestimonialController {
     @PostMapping("/toggle-publish/{id}")
     public String togglePublish(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
-            Optional<Testimonial> testimonialOpt = testimonialService.getTestimonialById(id);
-            
-            if (testimonialOpt.isEmpty()) {
-                redirectAttributes.addFlashAttribute("errorMessage", "Testimonianza non trovata");
-                return "redirect:/admin/testimonials";
-            }
-            
-            Testimonial testimonial = testimonialOpt.get();
-            testimonial.setPublished(!testimonial.isPublished());
-            
-            // Imposta data di pubblicazione se viene pubblicato
-            if (testimonial.isPublished() && testimonial.getPublishedDate() == null) {
-                testimonial.setPublishedDate(LocalDateTime.now());
-            }
-            
-            testimonialService.saveTestimonial(testimonial);
+            // Il service legge lo stato precedente e aggiorna il contatore dei pubblicati
+            Testimonial testimonial = testimonialService.togglePublish(id);
             
             redirectAttributes.addFlashAttribute("successMessage", 
                 "Testimonianza " + (testimonial.isPublished() ? "pubblicata" : "rimossa dalla pubblicazione") + " con successo!");
             
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Testimonianza non trovata");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", 
                 "Errore: " + e.getMessage());
@@ -264,21 +232,12 @@ public class AdminTestimonialController {
     @PostMapping("/delete/{id}")
     public String deleteTestimonial(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
-            Optional<Testimonial> testimonial = testimonialService.getTestimonialById(id);
-            
-            if (testimonial.isEmpty()) {
-                redirectAttributes.addFlashAttribute("errorMessage", "Testimonianza non trovata");
-                return "redirect:/admin/testimonials";
-            }
-            
-            // Elimina anche il logo associato se esiste
-            if (testimonial.get().getLogoUrl() != null && !testimonial.get().getLogoUrl().isEmpty()) {
-                fileStorageService.deleteFile(testimonial.get().getLogoUrl());
-            }
-            
+            // Il service rilascia anche il logo, nella transazione dell'eliminazione
             testimonialService.deleteTestimonial(id);
             redirectAttributes.addFlashAttribute("successMessage", "Testimonianza eliminata con successo!");
             
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Testimonianza non trovata");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", 
                 "Errore durante l'eliminazione: " + e.getMessage());
@@ -349,14 +308,6 @@ public class AdminTestimonialController {
                 return "redirect:/admin/testimonials";
             }
             
-            // Elimina i loghi associati
-            for (Long id : testimonialIds) {
-                Optional<Testimonial> testimonial = testimonialService.getTestimonialById(id);
-                if (testimonial.isPresent() && testimonial.get().getLogoUrl() != null) {
-                    fileStorageService.deleteFile(testimonial.get().getLogoUrl());
-                }
-            }
-            
             int deletedCount = testimonialService.deleteTestimonials(testimonialIds);
             redirectAttributes.addFlashAttribute("successMessage", 
                 deletedCount + " testimonianza/e eliminata/e con successo!");
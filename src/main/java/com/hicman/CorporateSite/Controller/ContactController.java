@@ -10,7 +10,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.hicman.CorporateSite.Model.Contact;
-import com.hicman.CorporateSite.Service.ContactService;
+import com.hicman.CorporateSite.Service.ContactOutboxService;
 
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -24,7 +24,7 @@ public class ContactController {
     private static final Logger logger = LoggerFactory.getLogger(ContactController.class);
 
     @Autowired
-    private ContactService contactService;
+    private ContactOutboxService contactOutboxService;
 
     @Autowired
     private MessageSource messageSource;
@@ -69,12 +69,13 @@ public class ContactController {
         }
 
         try {
-            contactService.processContact(contact);
+            // Salvataggio nell'outbox: l'email parte in background, il visitatore non attende Mailgun
+            contactOutboxService.enqueue(contact);
             redirectAttributes.addFlashAttribute("successMessage", 
                 messageSource.getMessage("contact.form.success", null, LocaleContextHolder.getLocale()));
             return "redirect:/contact";
         } catch (Exception e) {
-            logger.error("Errore durante l'invio dell'email: ", e);
+            logger.error("Errore durante il salvataggio del contatto: ", e);
             
             // In caso di errore, mostra la pagina con l'errore
             model.addAttribute("contact", contact);
@@ -9,7 +9,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.hicman.CorporateSite.Model.Contact;
-import com.hicman.CorporateSite.Service.ContactService;
+import com.hicman.CorporateSite.Service.ContactOutboxService;
 
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
@@ -26,7 +26,7 @@ public class MainController {
     private static final Logger logger = LoggerFactory.getLogger(MainController.class);
 
     @Autowired
-    private ContactService contactService;
+    private ContactOutboxService contactOutboxService;
 
     @Autowired
     private MessageSource messageSource;
@@ -77,14 +77,15 @@ public class MainController {
         }
 
         try {
-            contactService.processContact(contact);
+            // Salvataggio nell'outbox: l'email parte in background, il visitatore non attende Mailgun
+            contactOutboxService.enqueue(contact);
 
             redirectAttributes.addFlashAttribute("successMessage",
                     messageSource.getMessage("contact.form.success", null, LocaleContextHolder.getLocale()));
 
             return "redirect:/#contact";
         } catch (Exception e) {
-            logger.error("Errore durante l'invio dell'email dalla homepage: ", e);
+            logger.error("Errore durante il salvataggio del contatto dalla homepage: ", e);
 
             // Se c'è un errore, mostra la pagina con l'errore invece del redirect
             model.addAttribute("errorMessage",
@@ -1,64 +1,73 @@
 package com.hicman.CorporateSite.Controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.hicman.CorporateSite.Model.BlogPost;
 import com.hicman.CorporateSite.Model.Testimonial;
-import com.hicman.CorporateSite.Service.BlogService;
-import com.hicman.CorporateSite.Service.TestimonialService;
+import com.hicman.CorporateSite.Service.KeysetPage;
+import com.hicman.CorporateSite.Service.PageCursor;
+import com.hicman.CorporateSite.Service.PageValidatorService;
+import com.hicman.CorporateSite.Service.PageValidatorService.PageValidators;
+import com.hicman.CorporateSite.Service.PublishedContentStore;
+import com.hicman.CorporateSite.Service.RelatedPostsService;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 /**
  * Controller per la Rassegna Stampa e Dicono di Noi
  * Gestisce le pagine pubbliche della sezione Press
+ * I contenuti sono letti dallo snapshot in memoria, senza query al database
  */
 @Controller
 public class PressController {
 
     @Autowired
-    private BlogService blogService;
+    private PublishedContentStore publishedContentStore;
 
     @Autowired
-    private TestimonialService testimonialService;
+    private RelatedPostsService relatedPostsService;
+
+    @Autowired
+    private PageValidatorService pageValidatorService;
 
     /**
      * Pagina principale Rassegna Stampa
-     * Lista paginata di tutti gli articoli pubblicati
+     * Lista di tutti gli articoli pubblicati con paginazione keyset (cursori opachi)
      * 
-     * @param page Numero della pagina (default: 0)
+     * @param after Cursore della pagina successiva (opzionale)
+     * @param before Cursore della pagina precedente (opzionale)
      * @param size Elementi per pagina (default: 9)
      * @param model Model per Thymeleaf
      * @return Template rassegna-stampa.html
      */
     @GetMapping("/rassegna-stampa")
     public String rassegnaStampa(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
             @RequestParam(defaultValue = "9") int size,
             Model model) {
         
         // Validazione parametri
-        if (page < 0) page = 0;
         if (size < 1) size = 9;
         if (size > 50) size = 50; // Max 50 items per page
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<BlogPost> blogPage = blogService.getPublishedPosts(pageable);
+        PageCursor beforeCursor = PageCursor.decode(before);
+        KeysetPage<BlogPost> blogPage = beforeCursor != null
+                ? publishedContentStore.getPublishedPostsBefore(beforeCursor, size)
+                : publishedContentStore.getPublishedPostsAfter(PageCursor.decode(after), size);
         
         // Aggiungi attributi al model
-        model.addAttribute("posts", blogPage.getContent());
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", blogPage.getTotalPages());
-        model.addAttribute("totalItems", blogPage.getTotalElements());
+        model.addAttribute("posts", blogPage.content());
+        model.addAttribute("blogPage", blogPage);
+        model.addAttribute("totalItems", publishedContentStore.countPublishedPosts());
         model.addAttribute("pageTitle", "Hicman Capital Partner - Rassegna Stampa");
         
         return "rassegna-stampa";
@@ -69,11 +78,13 @@ public class PressController {
      * 
      * @param id ID dell'articolo
      * @param model Model per Thymeleaf
-     * @return Template press-detail.html o redirect se non trovato
+     * @param webRequest Richiesta corrente (If-None-Match)
+     * @param locale Lingua della pagina
+     * @return Template press-detail.html, redirect se non trovato, null se non modificato (304)
      */
     @GetMapping("/rassegna-stampa/{id}")
-    public String viewArticle(@PathVariable Long id, Model model) {
-        Optional<BlogPost> postOpt = blogService.getPublishedPostById(id);
+    public String viewArticle(@PathVariable Long id, Model model, ServletWebRequest webRequest, Locale locale) {
+        Optional<BlogPost> postOpt = publishedContentStore.getPublishedPostById(id);
         
         if (postOpt.isEmpty()) {
             // Articolo non trovato o non pubblicato
@@ -81,15 +92,18 @@ public class PressController {
         }
         
         BlogPost post = postOpt.get();
+        
+        // Articoli correlati precalcolati dall'indice di similarità
+        List<BlogPost> relatedPosts = relatedPostsService.getRelatedPosts(id, 3);
+        
+        // Il client ha già questa versione: 304 senza render
+        PageValidators validators = pageValidatorService.forArticle(post, relatedPosts, locale);
+        if (pageValidatorService.checkNotModified(webRequest, validators)) {
+            return null;
+        }
+        
         model.addAttribute("post", post);
         model.addAttribute("pageTitle", post.getTitle() + " - Hicman Capital Partner");
-        
-        // Carica articoli correlati (ultimi 3 post escluso quello corrente)
-        List<BlogPost> relatedPosts = blogService.getLatestPublishedPosts(4)
-            .stream()
-            .filter(p -> !p.getId().equals(id))
-            .limit(3)
-            .toList();
         model.addAttribute("relatedPosts", relatedPosts);
         
         return "press-detail";
@@ -114,12 +128,19 @@ public class PressController {
      * Lista di tutte le testimonianze pubblicate
      * 
      * @param model Model per Thymeleaf
-     * @return Template dicono-di-noi.html
+     * @param webRequest Richiesta corrente (If-None-Match)
+     * @param locale Lingua della pagina
+     * @return Template dicono-di-noi.html, null se non modificato (304)
      */
     @GetMapping("/dicono-di-noi")
-    public String diconoDiNoi(Model model) {
+    public String diconoDiNoi(Model model, ServletWebRequest webRequest, Locale locale) {
         // Carica tutte le testimonianze pubblicate (ordinate per data desc)
-        List<Testimonial> testimonials = testimonialService.getAllPublishedTestimonials();
+        List<Testimonial> testimonials = publishedContentStore.getPublishedTestimonials();
+        
+        // Il client ha già questa versione: 304 senza render
+        if (pageValidatorService.checkNotModified(webRequest, pageValidatorService.forTestimonials(testimonials, locale))) {
+            return null;
+        }
         
         model.addAttribute("testimonials", testimonials);
         model.addAttribute("pageTitle", "Hicman Capital Partner - Dicono di Noi");
@@ -133,7 +154,7 @@ public class PressController {
      */
     @GetMapping("/dicono-di-noi/{id}")
     public String viewTestimonial(@PathVariable Long id, Model model) {
-        Optional<Testimonial> testimonialOpt = testimonialService.getPublishedTestimonialById(id);
+        Optional<Testimonial> testimonialOpt = publishedContentStore.getPublishedTestimonialById(id);
         
         if (testimonialOpt.isEmpty()) {
             return "redirect:/dicono-di-noi";
@@ -22,12 +22,23 @@ public class BlogPost {
     
     @NotBlank(message = "Il contenuto è obbligatorio")
     @Size(min = 10, message = "Il contenuto deve essere di almeno 10 caratteri")
-    @Column(columnDefinition = "TEXT")
+    @Lob
     private String content;
     
     @Column(name = "image_url", length = 500)
     private String imageUrl;
     
+    // Metadati dell'immagine, valorizzati dalla pipeline delle varianti (ImageDerivativeService)
+    @Column(name = "image_width")
+    private Integer imageWidth;
+    
+    @Column(name = "image_height")
+    private Integer imageHeight;
+    
+    // Anteprima sfocata (data URI) mostrata mentre l'immagine viene caricata
+    @Column(name = "image_lqip", length = 2000)
+    private String imageLqip;
+    
     @Column(name = "external_link", length = 500)
     private String externalLink;
     
@@ -70,6 +81,23 @@ public class BlogPost {
         return imageUrl != null && !imageUrl.trim().isEmpty();
     }
     
+    // Metodo helper per verificare se le varianti ridimensionate sono pronte
+    public boolean hasImageVariants() {
+        return hasImage() && imageWidth != null;
+    }
+    
+    // URL della variante indicata (thumb, card, hero), o dell'originale se le varianti non sono pronte
+    public String getImageVariant(String variant) {
+        if (!hasImageVariants()) return imageUrl;
+        return ImageVariant.valueOf(variant.toUpperCase()).urlFor(imageUrl);
+    }
+    
+    // Attributo srcset con tutte le varianti (null se non sono pronte)
+    public String getImageSrcset() {
+        if (!hasImageVariants()) return null;
+        return ImageVariant.srcsetFor(imageUrl, imageWidth);
+    }
+    
     // Metodo helper per verificare se ha un link esterno
     public boolean hasExternalLink() {
         return externalLink != null && !externalLink.trim().isEmpty();
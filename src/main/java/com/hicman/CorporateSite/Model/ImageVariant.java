@@ -0,0 +1,64 @@
+package com.hicman.CorporateSite.Model;
+
+/**
+ * Varianti ridimensionate generate per ogni immagine caricata
+ * Le varianti stanno accanto all'originale: /uploads/blog/abc.jpg -> /uploads/blog/abc-card.jpg
+ * Formato: PNG se l'originale è PNG (loghi con trasparenza), altrimenti JPEG.
+ */
+public enum ImageVariant {
+
+    THUMB(160),
+    CARD(480),
+    HERO(1200);
+
+    private final int width;
+
+    ImageVariant(int width) {
+        this.width = width;
+    }
+
+    /**
+     * Larghezza massima della variante in pixel (le immagini più piccole non vengono ingrandite)
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * URL della variante per l'immagine originale indicata
+     */
+    public String urlFor(String originalUrl) {
+        int lastSlash = originalUrl.lastIndexOf('/');
+        int lastDot = originalUrl.lastIndexOf('.');
+        String base = lastDot > lastSlash ? originalUrl.substring(0, lastDot) : originalUrl;
+        return base + "-" + name().toLowerCase() + "." + formatFor(originalUrl);
+    }
+
+    /**
+     * Formato delle varianti per l'immagine originale ("png" o "jpg")
+     */
+    public static String formatFor(String originalUrl) {
+        return originalUrl.toLowerCase().endsWith(".png") ? "png" : "jpg";
+    }
+
+    /**
+     * Valore per l'attributo srcset con tutte le varianti
+     */
+    public static String srcsetFor(String originalUrl, int originalWidth) {
+        StringBuilder srcset = new StringBuilder();
+        int lastWidth = 0;
+        for (ImageVariant variant : values()) {
+            int width = Math.min(variant.width, originalWidth);
+            if (width == lastWidth) {
+                // Originale più piccolo della variante: stessa larghezza della precedente
+                continue;
+            }
+            if (srcset.length() > 0) {
+                srcset.append(", ");
+            }
+            srcset.append(variant.urlFor(originalUrl)).append(' ').append(width).append('w');
+            lastWidth = width;
+        }
+        return srcset.toString();
+    }
+}
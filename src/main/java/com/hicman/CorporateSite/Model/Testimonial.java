@@ -23,7 +23,8 @@ public class Testimonial {
      */
     @NotBlank(message = "La citazione è obbligatoria")
     @Size(max = 2000, message = "La citazione non può superare i 2000 caratteri")
-    @Column(columnDefinition = "TEXT", nullable = false)
+    @Lob
+    @Column(nullable = false)
     private String quote;
 
     /**
@@ -46,6 +47,16 @@ public class Testimonial {
     @Size(max = 500, message = "L'URL del logo non può superare i 500 caratteri")
     private String logoUrl;
 
+    /**
+     * Dimensioni e anteprima sfocata del logo (valorizzati dalla pipeline delle varianti)
+     */
+    private Integer logoWidth;
+
+    private Integer logoHeight;
+
+    @Column(length = 2000)
+    private String logoLqip;
+
     /**
      * Link esterno all'articolo o fonte originale
      */
@@ -112,6 +123,23 @@ public class Testimonial {
         return logoUrl != null && !logoUrl.trim().isEmpty();
     }
 
+    /**
+     * Verifica se le varianti ridimensionate del logo sono pronte
+     */
+    public boolean hasLogoVariants() {
+        return hasLogo() && logoWidth != null;
+    }
+
+    /**
+     * URL della variante del logo (thumb, card, hero), o dell'originale se non ancora generata
+     */
+    public String getLogoVariant(String variant) {
+        if (!hasLogoVariants()) {
+            return logoUrl;
+        }
+        return ImageVariant.valueOf(variant.toUpperCase()).urlFor(logoUrl);
+    }
+
     /**
      * Verifica se la testimonianza ha un link esterno
      */
@@ -184,6 +212,30 @@ public class Testimonial {
         this.logoUrl = logoUrl;
     }
 
+    public Integer getLogoWidth() {
+        return logoWidth;
+    }
+
+    public void setLogoWidth(Integer logoWidth) {
+        this.logoWidth = logoWidth;
+    }
+
+    public Integer getLogoHeight() {
+        return logoHeight;
+    }
+
+    public void setLogoHeight(Integer logoHeight) {
+        this.logoHeight = logoHeight;
+    }
+
+    public String getLogoLqip() {
+        return logoLqip;
+    }
+
+    public void setLogoLqip(String logoLqip) {
+        this.logoLqip = logoLqip;
+    }
+
     public String getExternalLink() {
         return externalLink;
     }
@@ -2,8 +2,13 @@ package com.hicman.CorporateSite.Repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -23,6 +28,11 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
      */
     Page<BlogPost> findByPublishedTrueOrderByPublishedDateDesc(Pageable pageable);
     
+    /**
+     * Trova tutti i post pubblicati ordinati per data (per lo snapshot in memoria)
+     */
+    List<BlogPost> findByPublishedTrueOrderByPublishedDateDesc();
+    
     /**
      * Trova un post pubblicato per ID
      */
@@ -33,15 +43,6 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
      */
     List<BlogPost> findTop10ByPublishedTrueOrderByPublishedDateDesc();
     
-    /**
-     * Ricerca nei post pubblicati
-     */
-    @Query("SELECT p FROM BlogPost p WHERE p.published = true AND " +
-           "(LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(p.content) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(p.sourceName) LIKE LOWER(CONCAT('%', :query, '%')))")
-    Page<BlogPost> searchPublishedPosts(@Param("query") String query, Pageable pageable);
-    
     /**
      * Conta i post pubblicati
      */
@@ -49,6 +50,31 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
 
     // ==================== METODI ADMIN ====================
     
+    /**
+     * Stato di pubblicazione di un post (vuoto se il post non esiste)
+     * Senza flush: legge lo stato salvato anche se l'entity caricata è già stata modificata
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT p.published FROM BlogPost p WHERE p.id = :id")
+    Optional<Boolean> findPublishedById(@Param("id") Long id);
+    
+    /**
+     * Immagine salvata di un post (vuoto se il post non esiste), senza flush come findPublishedById
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT p.imageUrl AS url, p.imageWidth AS width, p.imageHeight AS height, p.imageLqip AS lqip " +
+           "FROM BlogPost p WHERE p.id = :id")
+    Optional<StoredImage> findImageById(@Param("id") Long id);
+    
+    /**
+     * Registra dimensioni e anteprima dell'immagine su tutti i post che la usano
+     */
+    @Modifying
+    @Query("UPDATE BlogPost p SET p.imageWidth = :width, p.imageHeight = :height, p.imageLqip = :lqip " +
+           "WHERE p.imageUrl = :imageUrl")
+    int updateImageMetadata(@Param("imageUrl") String imageUrl, @Param("width") int width,
+                            @Param("height") int height, @Param("lqip") String lqip);
+    
     /**
      * Conta le bozze
      */
@@ -68,4 +94,36 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
      * Conta i post creati dopo una certa data
      */
     long countByCreatedAtAfter(LocalDateTime date);
+
+    // ==================== PAGINAZIONE KEYSET (ADMIN) ====================
+    // Ordinamento (createdAt, id) decrescente; published null = tutti i post
+
+    /**
+     * Prima pagina della lista admin
+     */
+    @Query("SELECT p FROM BlogPost p WHERE (:published IS NULL OR p.published = :published) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<BlogPost> findAdminFirstPage(@Param("published") Boolean published, Pageable pageable);
+
+    /**
+     * Pagina successiva al cursore (post più vecchi)
+     */
+    @Query("SELECT p FROM BlogPost p WHERE (:published IS NULL OR p.published = :published) AND " +
+           "(p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<BlogPost> findAdminPageAfter(@Param("published") Boolean published,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    /**
+     * Pagina precedente al cursore (post più recenti), in ordine crescente
+     */
+    @Query("SELECT p FROM BlogPost p WHERE (:published IS NULL OR p.published = :published) AND " +
+           "(p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id)) " +
+           "ORDER BY p.createdAt ASC, p.id ASC")
+    Slice<BlogPost> findAdminPageBefore(@Param("published") Boolean published,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
 }
\ No newline at end of file
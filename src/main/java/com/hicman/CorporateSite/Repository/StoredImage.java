@@ -0,0 +1,16 @@
+package com.hicman.CorporateSite.Repository;
+
+/**
+ * Immagine salvata su un record (immagine dell'articolo o logo della testimonianza)
+ * Proiezione letta dal database: i form admin non la rimandano indietro.
+ */
+public interface StoredImage {
+
+    String getUrl();
+
+    Integer getWidth();
+
+    Integer getHeight();
+
+    String getLqip();
+}
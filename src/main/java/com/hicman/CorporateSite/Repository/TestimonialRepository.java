@@ -1,6 +1,12 @@
 package com.hicman.CorporateSite.Repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.hicman.CorporateSite.Model.Testimonial;
@@ -30,6 +36,31 @@ public interface TestimonialRepository extends JpaRepository<Testimonial, Long>
 
     // ==================== METODI ADMIN ====================
     
+    /**
+     * Stato di pubblicazione di una testimonianza (vuoto se non esiste)
+     * Senza flush: legge lo stato salvato anche se l'entity caricata è già stata modificata
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT t.published FROM Testimonial t WHERE t.id = :id")
+    Optional<Boolean> findPublishedById(@Param("id") Long id);
+    
+    /**
+     * Logo salvato di una testimonianza (vuoto se non esiste), senza flush come findPublishedById
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT t.logoUrl AS url, t.logoWidth AS width, t.logoHeight AS height, t.logoLqip AS lqip " +
+           "FROM Testimonial t WHERE t.id = :id")
+    Optional<StoredImage> findLogoById(@Param("id") Long id);
+    
+    /**
+     * Registra dimensioni e anteprima del logo su tutte le testimonianze che lo usano
+     */
+    @Modifying
+    @Query("UPDATE Testimonial t SET t.logoWidth = :width, t.logoHeight = :height, t.logoLqip = :lqip " +
+           "WHERE t.logoUrl = :logoUrl")
+    int updateLogoMetadata(@Param("logoUrl") String logoUrl, @Param("width") int width,
+                           @Param("height") int height, @Param("lqip") String lqip);
+    
     /**
      * Conta bozze
      */
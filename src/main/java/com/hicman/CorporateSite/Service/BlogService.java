@@ -1,9 +1,12 @@
 package com.hicman.CorporateSite.Service;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,13 +14,20 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.hicman.CorporateSite.Model.BlogPost;
 import com.hicman.CorporateSite.Repository.BlogPostRepository;
+import com.hicman.CorporateSite.Repository.StoredImage;
+import com.hicman.CorporateSite.Service.ContentChangedEvent.ContentType;
+import com.hicman.CorporateSite.Service.ContentCounterService.Counter;
+import com.hicman.CorporateSite.Service.SearchIndexService.SearchResult;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed("hicman.service")
 @Transactional
 public class BlogService {
 
@@ -27,6 +37,18 @@ public class BlogService {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ContentCounterService contentCounterService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ==================== METODI PUBBLICI ====================
 
     /**
@@ -54,17 +76,17 @@ public class BlogService {
     }
 
     /**
-     * Ricerca nei post pubblicati
+     * Ricerca full-text nei post pubblicati (indice in memoria, ordinamento per rilevanza)
      */
-    public Page<BlogPost> searchPublishedPosts(String query, Pageable pageable) {
-        return blogPostRepository.searchPublishedPosts(query, pageable);
+    public Page<SearchResult> searchPublishedPosts(String query, Pageable pageable) {
+        return searchIndexService.search(query, pageable);
     }
 
     /**
      * Conta i post pubblicati
      */
     public long countPublishedPosts() {
-        return blogPostRepository.countByPublishedTrue();
+        return contentCounterService.get(Counter.PUBLISHED_BLOG_POSTS);
     }
 
     // ==================== METODI ADMIN ====================
@@ -76,6 +98,41 @@ public class BlogService {
         return blogPostRepository.findAll(pageable);
     }
 
+    /**
+     * Lista admin con paginazione keyset su (createdAt, id)
+     *
+     * @param published Filtro stato: true, false o null per tutti
+     * @param after Cursore per la pagina successiva (null se assente)
+     * @param before Cursore per la pagina precedente (null se assente)
+     * @param size Elementi per pagina
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BlogPost> getPostsForAdmin(Boolean published, PageCursor after, PageCursor before, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+
+        if (before != null) {
+            Slice<BlogPost> slice = blogPostRepository.findAdminPageBefore(published, before.date(), before.id(), pageable);
+            if (!slice.hasNext()) {
+                // Tornati all'inizio: mostra sempre una prima pagina completa
+                return getPostsForAdmin(published, null, null, size);
+            }
+            List<BlogPost> content = new ArrayList<>(slice.getContent());
+            Collections.reverse(content);
+            return new KeysetPage<>(content, adminCursor(content.get(0)), adminCursor(content.get(content.size() - 1)));
+        }
+
+        Slice<BlogPost> slice = after != null
+                ? blogPostRepository.findAdminPageAfter(published, after.date(), after.id(), pageable)
+                : blogPostRepository.findAdminFirstPage(published, pageable);
+        List<BlogPost> content = slice.getContent();
+        if (content.isEmpty()) {
+            return new KeysetPage<>(content, null, null);
+        }
+        String previousCursor = after != null ? adminCursor(content.get(0)) : null;
+        String nextCursor = slice.hasNext() ? adminCursor(content.get(content.size() - 1)) : null;
+        return new KeysetPage<>(content, previousCursor, nextCursor);
+    }
+
     /**
      * Ottiene tutti i post in bozza
      */
@@ -110,40 +167,70 @@ public class BlogService {
         // Aggiorna sempre la data di modifica
         post.setUpdatedAt(LocalDateTime.now());
         
-        return blogPostRepository.save(post);
-    }
-
-    /**
-     * Salva un post con upload immagine
-     */
-    public BlogPost savePostWithImage(BlogPost post, MultipartFile imageFile) throws IOException {
-        // Se c'è un file immagine, caricalo
-        if (imageFile != null && !imageFile.isEmpty()) {
-            String imageUrl = fileStorageService.storeFile(imageFile, "blog");
-            post.setImageUrl(imageUrl);
+        // Stato precedente per aggiornare i contatori
+        Optional<Boolean> wasPublished = post.getId() != null
+                ? blogPostRepository.findPublishedById(post.getId())
+                : Optional.empty();
+        
+        BlogPost savedPost = blogPostRepository.save(post);
+        
+        if (wasPublished.isEmpty()) {
+            contentCounterService.increment(Counter.BLOG_POSTS, 1);
         }
+        contentCounterService.increment(Counter.PUBLISHED_BLOG_POSTS,
+                publishedDelta(wasPublished.orElse(false), savedPost.isPublished()));
         
-        return savePost(post);
+        // Varianti ridimensionate e metadati dell'immagine, generati in background dopo il commit
+        if (savedPost.hasImage() && savedPost.getImageWidth() == null) {
+            imageDerivativeService.requestDerivatives(savedPost.getImageUrl());
+        }
+        
+        publishChange();
+        return savedPost;
     }
 
     /**
-     * Salva solo l'immagine e restituisce l'URL
+     * Salva un post dal form admin con eventuale upload o rimozione dell'immagine
+     * Il form non contiene l'immagine: quella attuale viene letta dal database e mantenuta se non
+     * arriva un nuovo file e non ne è chiesta la rimozione. Nuovo file, rilascio del vecchio e post
+     * stanno nella stessa transazione; il vecchio file lascia il disco solo dopo il commit.
      */
-    public String saveImage(MultipartFile file) throws IOException {
-        if (file == null || file.isEmpty()) {
-            throw new IOException("File immagine vuoto");
+    @Transactional(rollbackFor = IOException.class)
+    public BlogPost savePostWithImage(BlogPost post, MultipartFile imageFile, boolean removeImage) throws IOException {
+        Optional<StoredImage> current = post.getId() != null
+                ? blogPostRepository.findImageById(post.getId())
+                : Optional.empty();
+        String currentUrl = current.map(StoredImage::getUrl).orElse(null);
+        boolean upload = imageFile != null && !imageFile.isEmpty();
+        
+        if (upload) {
+            setImage(post, fileStorageService.storeFile(imageFile, "blog"), null);
+        } else if (removeImage) {
+            setImage(post, null, null);
+        } else {
+            setImage(post, currentUrl, current.orElse(null));
+        }
+        
+        // Immagine sostituita o rimossa (con lo stesso contenuto il file resta, cambia solo il conteggio)
+        if (currentUrl != null && (upload || removeImage)) {
+            fileStorageService.deleteFile(currentUrl);
         }
-        return fileStorageService.storeFile(file, "blog");
+        
+        return savePost(post);
     }
 
     /**
      * Elimina un post per ID
      */
     public void deletePost(Long id) {
-        if (!blogPostRepository.existsById(id)) {
+        Optional<Boolean> wasPublished = blogPostRepository.findPublishedById(id);
+        if (wasPublished.isEmpty()) {
             throw new IllegalArgumentException("Post non trovato con ID: " + id);
         }
+        deleteImage(id);
         blogPostRepository.deleteById(id);
+        decrementCounters(wasPublished.get());
+        publishChange();
     }
 
     /**
@@ -153,21 +240,18 @@ public class BlogService {
     public int deletePosts(Long[] postIds) {
         int count = 0;
         for (Long id : postIds) {
-            if (blogPostRepository.existsById(id)) {
+            Optional<Boolean> wasPublished = blogPostRepository.findPublishedById(id);
+            if (wasPublished.isPresent()) {
+                deleteImage(id);
                 blogPostRepository.deleteById(id);
+                decrementCounters(wasPublished.get());
                 count++;
             }
         }
-        return count;
-    }
-
-    /**
-     * Elimina l'immagine associata ad un post
-     */
-    public void deleteImage(String imageUrl) {
-        if (imageUrl != null && !imageUrl.isEmpty()) {
-            fileStorageService.deleteFile(imageUrl);
+        if (count > 0) {
+            publishChange();
         }
+        return count;
     }
 
     /**
@@ -188,23 +272,27 @@ public class BlogService {
             post.setPublishedDate(LocalDateTime.now());
         }
         
-        return blogPostRepository.save(post);
+        BlogPost savedPost = blogPostRepository.save(post);
+        contentCounterService.increment(Counter.PUBLISHED_BLOG_POSTS, post.isPublished() ? 1 : -1);
+        publishChange();
+        return savedPost;
     }
 
     // ==================== STATISTICHE ====================
+    // I totali arrivano dai contatori incrementali (vedi ContentCounterService)
 
     /**
      * Conta tutti i post (pubblicati e bozze)
      */
     public long countAllPosts() {
-        return blogPostRepository.count();
+        return contentCounterService.get(Counter.BLOG_POSTS);
     }
 
     /**
      * Conta solo le bozze
      */
     public long countDraftPosts() {
-        return blogPostRepository.countByPublishedFalse();
+        return countAllPosts() - countPublishedPosts();
     }
 
     /**
@@ -221,4 +309,48 @@ public class BlogService {
     public boolean existsById(Long id) {
         return blogPostRepository.existsById(id);
     }
+
+    // ==================== UTILITY METHODS ====================
+
+    private long publishedDelta(boolean wasPublished, boolean isPublished) {
+        return (isPublished ? 1 : 0) - (wasPublished ? 1 : 0);
+    }
+
+    private void decrementCounters(boolean wasPublished) {
+        contentCounterService.increment(Counter.BLOG_POSTS, -1);
+        if (wasPublished) {
+            contentCounterService.increment(Counter.PUBLISHED_BLOG_POSTS, -1);
+        }
+    }
+
+    /**
+     * Imposta immagine e metadati (null: ricalcolati dalla pipeline delle varianti)
+     */
+    private void setImage(BlogPost post, String imageUrl, StoredImage metadata) {
+        post.setImageUrl(imageUrl);
+        post.setImageWidth(metadata != null ? metadata.getWidth() : null);
+        post.setImageHeight(metadata != null ? metadata.getHeight() : null);
+        post.setImageLqip(metadata != null ? metadata.getLqip() : null);
+    }
+
+    /**
+     * Rilascia l'immagine salvata di un post che sta per essere eliminato
+     * Il file lascia il disco solo dopo il commit dell'eliminazione (vedi FileStorageService.deleteFile)
+     */
+    private void deleteImage(Long id) {
+        blogPostRepository.findImageById(id)
+                .map(StoredImage::getUrl)
+                .ifPresent(fileStorageService::deleteFile);
+    }
+
+    private String adminCursor(BlogPost post) {
+        return new PageCursor(post.getCreatedAt(), post.getId()).encode();
+    }
+
+    /**
+     * Notifica la modifica dei post (gestita dai listener dopo il commit)
+     */
+    private void publishChange() {
+        eventPublisher.publishEvent(new ContentChangedEvent(ContentType.BLOG_POST));
+    }
 }
\ No newline at end of file
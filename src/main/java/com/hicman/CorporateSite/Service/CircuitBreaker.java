@@ -0,0 +1,114 @@
+package com.hicman.CorporateSite.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker minimale per le chiamate a servizi esterni
+ * Dopo failureThreshold errori consecutivi il circuito si apre e le chiamate falliscono subito;
+ * trascorso openDuration passa una sola chiamata di prova: se riesce il circuito si richiude.
+ */
+final class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock Sorgente del tempo in nanosecondi (System.nanoTime, sostituibile nei test)
+     */
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * true se la chiamata può partire; false se il circuito è aperto (fallire subito)
+     */
+    synchronized boolean tryAcquirePermission() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAt < openDurationNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                logger.info("Circuit breaker {}: chiamata di prova", name);
+                return true;
+            default:
+                // HALF_OPEN: una sola chiamata di prova alla volta
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Circuit breaker {}: chiuso", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                logger.warn("Circuit breaker {}: aperto dopo {} errori consecutivi", name, consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+        }
+    }
+
+    /**
+     * Chiamata conclusa senza esito sul servizio (es. richiesta rifiutata per parametri errati)
+     */
+    synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    /**
+     * Tempo che manca alla chiamata di prova con il circuito aperto (zero negli altri stati)
+     */
+    synchronized Duration getRetryAfter() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(openDurationNanos - (nanoClock.getAsLong() - openedAt), 0));
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,302 @@
+package com.hicman.CorporateSite.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.hicman.CorporateSite.Model.Contact;
+import com.hicman.CorporateSite.Service.ContactService.MailgunUnavailableException;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outbox dei messaggi del form contatti (tabella contact_outbox, creata dalle migrazioni Flyway)
+ * La richiesta salva il messaggio e risponde subito; un dispatcher in background lo consegna a Mailgun.
+ * Gli invii falliti vengono ritentati con backoff esponenziale; dopo l'ultimo tentativo (o un rifiuto
+ * definitivo di Mailgun) il messaggio resta in stato DEAD per l'analisi, senza essere perso.
+ * Con il circuit breaker aperto i messaggi vengono solo rimandati: i tentativi contano le chiamate a Mailgun.
+ */
+@Service
+public class ContactOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactOutboxService.class);
+
+    public enum Status {
+        PENDING,
+        SENT,
+        DEAD
+    }
+
+    // Attesa minima prima di riprovare un messaggio rimandato con il circuit breaker aperto
+    private static final Duration MIN_POSTPONE = Duration.ofSeconds(1);
+
+    // Lunghezza massima salvata per l'ultimo errore di consegna
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Value("${contact.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${contact.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${contact.outbox.initial-backoff:30s}")
+    private Duration initialBackoff;
+
+    @Value("${contact.outbox.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    @Value("${contact.outbox.retention-days:30}")
+    private int retentionDays;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ContactService contactService;
+
+    // Un solo thread di consegna: niente invii doppi dello stesso messaggio
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "contact-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Evita di accodare più giri di consegna mentre uno è già in attesa
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+
+    // Metriche di consegna (dalla creazione del messaggio all'invio riuscito)
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder deliveryLatencyTotalMillis = new LongAdder();
+    private final AtomicLong deliveryLatencyMaxMillis = new AtomicLong();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // Messaggi rimasti in coda da prima del riavvio
+        requestDispatch();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    // ==================== ACCODAMENTO ====================
+
+    /**
+     * Salva il messaggio nell'outbox; la consegna parte dopo il commit
+     */
+    @Transactional
+    public void enqueue(Contact contact) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(
+            "INSERT INTO contact_outbox (subject, body, status, attempts, next_attempt_at, created_at) VALUES (?, ?, ?, 0, ?, ?)",
+            contactService.buildSubject(contact), contactService.buildEmailText(contact),
+            Status.PENDING.name(), Timestamp.valueOf(now), Timestamp.valueOf(now));
+
+        logger.info("Contatto di {} {} accodato per l'invio", contact.getNome(), contact.getCognome());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                requestDispatch();
+            }
+        });
+    }
+
+    // ==================== CONSEGNA ====================
+
+    /**
+     * Rete di sicurezza per i ritentativi programmati e per le consegne non partite dopo il commit
+     */
+    @Scheduled(fixedDelayString = "${contact.outbox.poll-interval-ms:15000}")
+    public void scheduledDispatch() {
+        requestDispatch();
+    }
+
+    /**
+     * Elimina i messaggi inviati più vecchi del periodo di conservazione (contengono dati personali)
+     */
+    @Scheduled(cron = "${contact.outbox.cleanup-cron:0 15 4 * * *}")
+    public void purgeSent() {
+        int deleted = jdbcTemplate.update("DELETE FROM contact_outbox WHERE status = ? AND sent_at < ?",
+                Status.SENT.name(), Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted > 0) {
+            logger.info("Outbox contatti: {} messaggi inviati eliminati", deleted);
+        }
+    }
+
+    private void requestDispatch() {
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                dispatchScheduled.set(false);
+                try {
+                    dispatchDue();
+                } catch (RuntimeException e) {
+                    logger.error("Errore del dispatcher dell'outbox contatti", e);
+                }
+            });
+        }
+    }
+
+    private void dispatchDue() {
+        List<OutboxMessage> due;
+        do {
+            due = jdbcTemplate.query(
+                "SELECT id, subject, body, attempts, created_at FROM contact_outbox " +
+                "WHERE status = ? AND next_attempt_at <= ? ORDER BY next_attempt_at LIMIT ?",
+                (rs, rowNum) -> new OutboxMessage(rs.getLong("id"), rs.getString("subject"), rs.getString("body"),
+                        rs.getInt("attempts"), rs.getTimestamp("created_at").toLocalDateTime()),
+                Status.PENDING.name(), Timestamp.valueOf(LocalDateTime.now()), batchSize);
+
+            for (OutboxMessage message : due) {
+                deliver(message);
+            }
+        } while (due.size() == batchSize);
+    }
+
+    private void deliver(OutboxMessage message) {
+        int attempt = message.attempts() + 1;
+        try {
+            contactService.sendEmail(message.subject(), message.body());
+        } catch (MailgunUnavailableException e) {
+            // Mailgun non è stato chiamato: il messaggio aspetta la riapertura senza consumare tentativi
+            postpone(message, e);
+            return;
+        } catch (Exception e) {
+            failedAttempts.increment();
+            if (attempt >= maxAttempts || isPermanent(e)) {
+                markDead(message, attempt, e);
+            } else {
+                scheduleRetry(message, attempt, e);
+            }
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(
+            "UPDATE contact_outbox SET status = ?, attempts = ?, sent_at = ?, last_error = NULL WHERE id = ?",
+            Status.SENT.name(), attempt, Timestamp.valueOf(now), message.id());
+
+        long latency = Duration.between(message.createdAt(), now).toMillis();
+        deliveredCount.increment();
+        deliveryLatencyTotalMillis.add(latency);
+        deliveryLatencyMaxMillis.accumulateAndGet(latency, Math::max);
+        logger.info("Email contatto {} inviata al tentativo {} ({} ms dall'invio del form)", message.id(), attempt, latency);
+    }
+
+    private void scheduleRetry(OutboxMessage message, int attempt, Exception error) {
+        Duration delay = backoff(attempt);
+        jdbcTemplate.update(
+            "UPDATE contact_outbox SET attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?",
+            attempt, Timestamp.valueOf(LocalDateTime.now().plus(delay)), errorText(error), message.id());
+        logger.warn("Invio email contatto {} fallito (tentativo {}/{}), nuovo tentativo tra {} s: {}",
+                message.id(), attempt, maxAttempts, delay.toSeconds(), error.getMessage());
+    }
+
+    private void postpone(OutboxMessage message, MailgunUnavailableException unavailable) {
+        Duration delay = unavailable.getRetryAfter().compareTo(MIN_POSTPONE) > 0 ? unavailable.getRetryAfter() : MIN_POSTPONE;
+        jdbcTemplate.update(
+            "UPDATE contact_outbox SET next_attempt_at = ?, last_error = ? WHERE id = ?",
+            Timestamp.valueOf(LocalDateTime.now().plus(delay)), errorText(unavailable), message.id());
+        logger.info("Email contatto {} rimandata di {} s: {}", message.id(), delay.toSeconds(), unavailable.getMessage());
+    }
+
+    private void markDead(OutboxMessage message, int attempt, Exception error) {
+        jdbcTemplate.update(
+            "UPDATE contact_outbox SET status = ?, attempts = ?, last_error = ? WHERE id = ?",
+            Status.DEAD.name(), attempt, errorText(error), message.id());
+        deadLettered.increment();
+        logger.error("Email contatto {} non consegnata dopo {} tentativi, spostata in DEAD: {}",
+                message.id(), attempt, error.getMessage());
+    }
+
+    /**
+     * Backoff esponenziale con jitter (±20%) per non ritentare in blocco dopo un'interruzione di Mailgun
+     */
+    private Duration backoff(int attempt) {
+        long base = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (capped * jitter));
+    }
+
+    /**
+     * Richiesta rifiutata da Mailgun (credenziali, dominio, parametri): ritentare non serve
+     * Fanno eccezione 408 e 429, che indicano un problema temporaneo.
+     */
+    private static boolean isPermanent(Exception e) {
+        return e instanceof HttpClientErrorException clientError
+                && clientError.getStatusCode().value() != HttpStatus.REQUEST_TIMEOUT.value()
+                && clientError.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private static String errorText(Exception e) {
+        String text = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return text.length() > MAX_ERROR_LENGTH ? text.substring(0, MAX_ERROR_LENGTH) : text;
+    }
+
+    // ==================== METRICHE ====================
+
+    /**
+     * Messaggi in attesa di consegna (inclusi quelli in attesa di un nuovo tentativo)
+     */
+    public long getQueueDepth() {
+        return countByStatus(Status.PENDING);
+    }
+
+    /**
+     * Messaggi non consegnati dopo l'ultimo tentativo
+     */
+    public long getDeadLetterCount() {
+        return countByStatus(Status.DEAD);
+    }
+
+    /**
+     * Statistiche di consegna dall'avvio dell'applicazione
+     */
+    public DeliveryStats getDeliveryStats() {
+        long delivered = deliveredCount.sum();
+        return new DeliveryStats(
+                delivered,
+                failedAttempts.sum(),
+                deadLettered.sum(),
+                delivered > 0 ? deliveryLatencyTotalMillis.sum() / delivered : 0,
+                deliveryLatencyMaxMillis.get());
+    }
+
+    private long countByStatus(Status status) {
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM contact_outbox WHERE status = ?", Long.class, status.name());
+        return count != null ? count : 0;
+    }
+
+    public record DeliveryStats(long delivered, long failedAttempts, long deadLettered,
+                                long averageLatencyMillis, long maxLatencyMillis) {
+    }
+
+    private record OutboxMessage(long id, String subject, String body, int attempts, LocalDateTime createdAt) {
+    }
+}
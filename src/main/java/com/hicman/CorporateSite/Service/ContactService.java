@@ -1,23 +1,38 @@
 package com.hicman.CorporateSite.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.hicman.CorporateSite.Model.Contact;
 
+import java.net.http.HttpClient;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Base64;
-
-
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Email di notifica dei contatti via Mailgun
+ * L'invio avviene in background tramite l'outbox (vedi ContactOutboxService)
+ */
 @Service
 public class ContactService {
 
@@ -35,60 +50,161 @@ public class ContactService {
     @Value("${mailgun.to}")
     private String mailgunTo;
 
-    private final RestTemplate restTemplate;
+    // Endpoint regionale EU; sovrascrivibile per puntare a uno stub nei test di carico
+    @Value("${mailgun.api.base-url:https://api.eu.mailgun.net/v3}")
+    private String mailgunBaseUrl;
+
+    @Value("${mailgun.connect-timeout:3s}")
+    private Duration connectTimeout;
+
+    @Value("${mailgun.read-timeout:10s}")
+    private Duration readTimeout;
+
+    @Value("${mailgun.circuit.failure-threshold:5}")
+    private int circuitFailureThreshold;
+
+    @Value("${mailgun.circuit.open-duration:60s}")
+    private Duration circuitOpenDuration;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private RestTemplate restTemplate;
 
-    public ContactService() {
-        this.restTemplate = new RestTemplate();
+    private CircuitBreaker circuitBreaker;
+
+    // Metriche delle chiamate a Mailgun
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder latencyTotalMillis = new LongAdder();
+    private final AtomicLong latencyMaxMillis = new AtomicLong();
+
+    /**
+     * Client HTTP dedicato a Mailgun: connessioni keep-alive riutilizzate dal client JDK
+     * e timeout espliciti, così una chiamata bloccata non trattiene un thread all'infinito
+     */
+    @PostConstruct
+    public void init() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.circuitBreaker = new CircuitBreaker("mailgun", circuitFailureThreshold, circuitOpenDuration);
     }
 
-    public void processContact(Contact contact) throws Exception {
-        logger.info("Iniziando elaborazione contatto per: {} {}", contact.getNome(), contact.getCognome());
+    /**
+     * Oggetto dell'email di notifica per un contatto
+     */
+    public String buildSubject(Contact contact) {
+        return "Nuovo contatto da " + contact.getNome() + " " + contact.getCognome();
+    }
 
+    /**
+     * Invia un'email di notifica via Mailgun API
+     * Chiamato dal dispatcher dell'outbox (vedi ContactOutboxService), mai dal thread della richiesta:
+     * un solo thread di consegna, quindi al massimo una chiamata a Mailgun alla volta.
+     * Le risposte 4xx/5xx arrivano come eccezioni di RestTemplate (HttpClientErrorException / HttpServerErrorException).
+     * Con il circuit breaker aperto fallisce subito con MailgunUnavailableException, senza chiamare Mailgun.
+     */
+    public void sendEmail(String subject, String text) throws Exception {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            rejected.increment();
+            throw new MailgunUnavailableException(circuitBreaker.getRetryAfter());
+        }
+
+        long start = System.nanoTime();
+        String outcome = "SUCCESS";
         try {
-            String url = "https://api.eu.mailgun.net/v3/" + mailgunDomain + "/messages";
-
-            // Basic Auth header (impostato manualmente per compatibilità con form-urlencoded)
-            HttpHeaders headers = new HttpHeaders();
-            String auth = Base64.getEncoder().encodeToString(
-                ("api:" + mailgunApiKey).getBytes(StandardCharsets.UTF_8));
-            headers.set("Authorization", "Basic " + auth);
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-
-            // Form data
-            MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
-            formData.add("from", mailgunFrom);
-            formData.add("to", mailgunTo);
-            formData.add("subject", "Nuovo contatto da " + contact.getNome() + " " + contact.getCognome());
-            formData.add("text", buildEmailText(contact));
-
-            HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(formData, headers);
-
-            logger.info("Tentativo di invio email via Mailgun API");
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                entity,
-                String.class
-            );
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                logger.info("Email inviata con successo via Mailgun per: {} {}",
-                    contact.getNome(), contact.getCognome());
+            send(subject, text);
+            circuitBreaker.onSuccess();
+        } catch (HttpClientErrorException e) {
+            // Richiesta rifiutata (credenziali, parametri): Mailgun risponde, il circuito non si apre
+            // 429 indica invece un servizio sovraccarico
+            outcome = "CLIENT_ERROR";
+            failures.increment();
+            if (e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                circuitBreaker.onFailure();
             } else {
-                logger.error("Errore Mailgun - Status: {}, Body: {}",
-                    response.getStatusCode(), response.getBody());
-                throw new Exception("Mailgun API error: " + response.getStatusCode());
+                circuitBreaker.onIgnored();
             }
-
+            throw e;
         } catch (Exception e) {
-            logger.error("Errore durante l'invio dell'email via Mailgun per {} {}: {}",
-                contact.getNome(), contact.getCognome(), e.getMessage(), e);
+            // Timeout, errori di rete e risposte 5xx
+            outcome = "ERROR";
+            failures.increment();
+            circuitBreaker.onFailure();
             throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("mailgun.requests")
+                    .description("Chiamate all'API Mailgun")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            long latency = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            calls.increment();
+            latencyTotalMillis.add(latency);
+            latencyMaxMillis.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    /**
+     * Statistiche delle chiamate a Mailgun dall'avvio dell'applicazione
+     */
+    public MailgunStats getMailgunStats() {
+        long count = calls.sum();
+        return new MailgunStats(
+                count,
+                failures.sum(),
+                rejected.sum(),
+                count > 0 ? latencyTotalMillis.sum() / count : 0,
+                latencyMaxMillis.get(),
+                circuitBreaker.getState().name());
+    }
+
+    private void send(String subject, String text) throws Exception {
+        String url = mailgunBaseUrl + "/" + mailgunDomain + "/messages";
+
+        // Basic Auth header (impostato manualmente per compatibilità con form-urlencoded)
+        HttpHeaders headers = new HttpHeaders();
+        String auth = Base64.getEncoder().encodeToString(
+            ("api:" + mailgunApiKey).getBytes(StandardCharsets.UTF_8));
+        headers.set("Authorization", "Basic " + auth);
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+        // Form data
+        MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+        formData.add("from", mailgunFrom);
+        formData.add("to", mailgunTo);
+        formData.add("subject", subject);
+        formData.add("text", text);
+
+        HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(formData, headers);
+
+        logger.info("Tentativo di invio email via Mailgun API");
+
+        ResponseEntity<String> response = restTemplate.exchange(
+            url,
+            HttpMethod.POST,
+            entity,
+            String.class
+        );
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            logger.error("Errore Mailgun - Status: {}, Body: {}",
+                response.getStatusCode(), response.getBody());
+            throw new Exception("Mailgun API error: " + response.getStatusCode());
         }
     }
 
-    private String buildEmailText(Contact contact) {
+    /**
+     * Testo dell'email di notifica per un contatto
+     */
+    public String buildEmailText(Contact contact) {
         StringBuilder sb = new StringBuilder();
         sb.append("Nuovo messaggio dal form contatti Hicman\n");
         sb.append("==========================================\n\n");
@@ -104,4 +220,28 @@ public class ContactService {
         sb.append("\nMessaggio:\n").append(contact.getMessaggio()).append("\n");
         return sb.toString();
     }
+
+    /**
+     * Invio non tentato perché il circuit breaker è aperto: non è un tentativo di consegna fallito
+     */
+    public static class MailgunUnavailableException extends Exception {
+
+        private final Duration retryAfter;
+
+        MailgunUnavailableException(Duration retryAfter) {
+            super("Mailgun non disponibile: circuit breaker aperto");
+            this.retryAfter = retryAfter;
+        }
+
+        /**
+         * Tempo che manca alla prossima chiamata di prova
+         */
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+    }
+
+    public record MailgunStats(long calls, long failures, long rejected, long averageLatencyMillis,
+                               long maxLatencyMillis, String circuitState) {
+    }
 }
@@ -0,0 +1,13 @@
+package com.hicman.CorporateSite.Service;
+
+/**
+ * Evento pubblicato dai service quando un contenuto (articolo o testimonianza) viene modificato
+ * I listener lo ricevono dopo il commit della transazione
+ */
+public record ContentChangedEvent(ContentType contentType) {
+
+    public enum ContentType {
+        BLOG_POST,
+        TESTIMONIAL
+    }
+}
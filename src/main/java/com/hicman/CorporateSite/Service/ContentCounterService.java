@@ -0,0 +1,117 @@
+package com.hicman.CorporateSite.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hicman.CorporateSite.Repository.BlogPostRepository;
+import com.hicman.CorporateSite.Repository.TestimonialRepository;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contatori dei contenuti (tabella content_counters)
+ * Aggiornati nella stessa transazione delle operazioni di salvataggio, pubblicazione ed eliminazione,
+ * così dashboard e liste admin leggono un valore per chiave invece di eseguire COUNT(*).
+ * Un job di riconciliazione ricalcola periodicamente i valori reali e corregge eventuali derive.
+ */
+@Service
+@Transactional
+public class ContentCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentCounterService.class);
+
+    public enum Counter {
+        BLOG_POSTS,
+        PUBLISHED_BLOG_POSTS,
+        TESTIMONIALS,
+        PUBLISHED_TESTIMONIALS
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private TestimonialRepository testimonialRepository;
+
+    /**
+     * Legge il valore di un contatore
+     */
+    @Transactional(readOnly = true)
+    public long get(Counter counter) {
+        List<Long> values = jdbcTemplate.queryForList(
+            "SELECT counter_value FROM content_counters WHERE name = ?", Long.class, counter.name());
+        return values.isEmpty() ? 0 : values.get(0);
+    }
+
+    /**
+     * Somma delta al contatore (partecipa alla transazione del chiamante)
+     */
+    public void increment(Counter counter, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        int updated = jdbcTemplate.update(
+            "UPDATE content_counters SET counter_value = counter_value + ? WHERE name = ?", delta, counter.name());
+        if (updated == 0) {
+            // Riga mancante: verrà ricreata con il valore corretto dalla riconciliazione
+            logger.warn("Contatore {} non inizializzato, aggiornamento ignorato", counter);
+        }
+    }
+
+    // ==================== RICONCILIAZIONE ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${counters.reconcile-cron:0 0 3 * * *}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Ricalcola tutti i contatori dalle tabelle e corregge le differenze
+     * Le righe dei contatori vengono bloccate (FOR UPDATE) prima dei COUNT: un increment concorrente
+     * attende il commit della riconciliazione, oppure è già committato e rientra nei conteggi.
+     */
+    public void reconcile() {
+        Map<String, Long> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT name, counter_value FROM content_counters FOR UPDATE",
+            rs -> {
+                stored.put(rs.getString("name"), rs.getLong("counter_value"));
+            });
+
+        Map<Counter, Long> actual = new EnumMap<>(Counter.class);
+        actual.put(Counter.BLOG_POSTS, blogPostRepository.count());
+        actual.put(Counter.PUBLISHED_BLOG_POSTS, blogPostRepository.countByPublishedTrue());
+        actual.put(Counter.TESTIMONIALS, testimonialRepository.count());
+        actual.put(Counter.PUBLISHED_TESTIMONIALS, testimonialRepository.countByPublishedTrue());
+
+        for (Map.Entry<Counter, Long> entry : actual.entrySet()) {
+            Long current = stored.get(entry.getKey().name());
+            if (current == null) {
+                jdbcTemplate.update("INSERT INTO content_counters (name, counter_value) VALUES (?, ?)",
+                    entry.getKey().name(), entry.getValue());
+            } else if (current.longValue() != entry.getValue()) {
+                logger.warn("Contatore {} disallineato: {} invece di {}, corretto",
+                    entry.getKey(), current, entry.getValue());
+                jdbcTemplate.update("UPDATE content_counters SET counter_value = ? WHERE name = ?",
+                    entry.getValue(), entry.getKey().name());
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.hicman.CorporateSite.Service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+/**
+ * Bundle CSS per tipo di pagina
+ * All'avvio concatena e minifica i fogli di stile di static/css in un solo file per pagina,
+ * servito come /css/bundles/{nome}.css (con URL versionato come gli altri CSS).
+ * L'ordine dei file nel bundle è quello in cui erano collegati nei template.
+ * Le regole con classi o id che non compaiono in nessun template vengono rimosse (vedi CssPurger).
+ */
+@Service
+public class CssBundleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CssBundleService.class);
+
+    public static final String BUNDLE_DIRECTORY = "bundles/";
+
+    private static final String CSS_LOCATION = "static/css/";
+
+    private static final String TEMPLATE_PATTERN = "classpath:/templates/**/*.html";
+
+    // Le pagine admin hanno fogli di stile indipendenti con selettori in comune: un bundle per pagina
+    private static final Map<String, List<String>> BUNDLES = bundles();
+
+    // Classi aggiunte a runtime dagli script di Bootstrap, assenti dai template
+    @Value("${css.purge.safelist:show,showing,hiding,collapsing,collapsed,fade,active,disabled,modal-open,modal-backdrop,was-validated,is-valid,is-invalid,dropdown-menu-end}")
+    private Set<String> safelist;
+
+    @Value("${css.purge.enabled:true}")
+    private boolean purgeEnabled;
+
+    private volatile Map<String, Resource> resources = Collections.emptyMap();
+
+    private volatile List<BundleReport> report = Collections.emptyList();
+
+    private static Map<String, List<String>> bundles() {
+        Map<String, List<String>> bundles = new LinkedHashMap<>();
+        bundles.put("public", List.of(
+            "finance.css", "finance-fixes.css", "homepage-fixes.css", "navbar.css", "footer.css",
+            "services.css", "about.css", "press.css", "testimonials.css"));
+        bundles.put("admin", List.of("admin.css"));
+        bundles.put("admin-blog-form", List.of("admin.css", "admin-forms.css"));
+        bundles.put("admin-blog-list", List.of("admin-blog-list.css"));
+        bundles.put("admin-testimonials-form", List.of("admin-testimonials-form.css"));
+        bundles.put("admin-testimonials-list", List.of("admin-testimonials-list.css"));
+        bundles.put("admin-login", List.of("admin-login.css"));
+        return Collections.unmodifiableMap(bundles);
+    }
+
+    @PostConstruct
+    public void build() throws IOException {
+        long lastModified = System.currentTimeMillis();
+        Map<String, Resource> built = new LinkedHashMap<>();
+        List<BundleReport> sizes = new ArrayList<>();
+        Set<String> usedTokens = purgeEnabled ? collectTemplateTokens() : null;
+
+        for (Map.Entry<String, List<String>> bundle : BUNDLES.entrySet()) {
+            CssPurger purger = purgeEnabled ? new CssPurger(usedTokens) : null;
+            StringBuilder css = new StringBuilder();
+            int originalSize = 0;
+            int minifiedSize = 0;
+            for (String file : bundle.getValue()) {
+                String source = read(file);
+                String minified = minify(source);
+                originalSize += utf8Length(source);
+                minifiedSize += utf8Length(minified);
+                css.append(purger != null ? purger.purge(minified) : minified).append('\n');
+            }
+
+            String fileName = bundle.getKey() + ".css";
+            byte[] content = css.toString().getBytes(StandardCharsets.UTF_8);
+            built.put(BUNDLE_DIRECTORY + fileName, new BundleResource(content, fileName, lastModified));
+
+            BundleReport bundleReport = new BundleReport(fileName, bundle.getValue(), originalSize, minifiedSize,
+                    content.length, purger != null ? purger.getRemovedRules() : 0);
+            sizes.add(bundleReport);
+            logger.info("Bundle CSS {}: {} file, originale {} byte, minificato {} byte, finale {} byte ({} regole non usate rimosse)",
+                    fileName, bundle.getValue().size(), bundleReport.originalBytes(), bundleReport.minifiedBytes(),
+                    bundleReport.finalBytes(), bundleReport.removedRules());
+        }
+
+        resources = Collections.unmodifiableMap(built);
+        report = Collections.unmodifiableList(sizes);
+    }
+
+    /**
+     * Bundle per percorso relativo a /css/ (es. "bundles/public.css"), null se non esiste
+     */
+    public Resource getBundle(String path) {
+        return resources.get(path);
+    }
+
+    /**
+     * Bundle disponibili, per percorso relativo a /css/
+     */
+    public Map<String, Resource> getBundles() {
+        return resources;
+    }
+
+    /**
+     * Dimensioni di ogni bundle: originale, dopo la minificazione e dopo la rimozione delle regole non usate
+     */
+    public List<BundleReport> getReport() {
+        return report;
+    }
+
+    /**
+     * Parole presenti nei template (attributi class, th:classappend, script inline) più la safelist
+     */
+    private Set<String> collectTemplateTokens() throws IOException {
+        Set<String> tokens = new HashSet<>(safelist);
+        for (Resource template : new PathMatchingResourcePatternResolver().getResources(TEMPLATE_PATTERN)) {
+            try (InputStream in = template.getInputStream()) {
+                Matcher matcher = CssPurger.TEMPLATE_TOKEN.matcher(StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+                while (matcher.find()) {
+                    tokens.add(matcher.group());
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static int utf8Length(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private String read(String file) throws IOException {
+        try (InputStream in = new ClassPathResource(CSS_LOCATION + file).getInputStream()) {
+            return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    // ==================== MINIFICAZIONE ====================
+
+    /**
+     * Minificazione conservativa: rimuove commenti e spazi superflui senza riscrivere le regole
+     * Le stringhe tra apici restano intatte; gli spazi prima di "(" e ":" vengono mantenuti
+     * perché hanno significato nei selettori (a :hover) e nelle media query (and (...)).
+     */
+    static String minify(String css) {
+        StringBuilder out = new StringBuilder(css.length());
+        int length = css.length();
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < length; i++) {
+            char c = css.charAt(i);
+
+            // Commenti
+            if (c == '/' && i + 1 < length && css.charAt(i + 1) == '*') {
+                int end = css.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 1;
+                continue;
+            }
+
+            // Stringhe copiate senza modifiche
+            if (c == '"' || c == '\'') {
+                if (pendingSpace && needsSpaceBefore(out)) {
+                    out.append(' ');
+                }
+                pendingSpace = false;
+                int end = i + 1;
+                while (end < length && css.charAt(end) != c) {
+                    end += css.charAt(end) == '\\' ? 2 : 1;
+                }
+                end = Math.min(end, length - 1);
+                out.append(css, i, end + 1);
+                i = end;
+                continue;
+            }
+
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+
+            if (c == '{' || c == '}' || c == ';' || c == ',' || c == '>') {
+                // Nessuno spazio attorno ai separatori; ";" finale prima di "}" superfluo
+                if (c == '}' && out.length() > 0 && out.charAt(out.length() - 1) == ';') {
+                    out.setLength(out.length() - 1);
+                }
+                out.append(c);
+                pendingSpace = false;
+                continue;
+            }
+
+            if (pendingSpace && needsSpaceBefore(out)) {
+                out.append(' ');
+            }
+            pendingSpace = false;
+            out.append(c);
+
+            if (c == ':') {
+                // Spazio dopo i due punti delle dichiarazioni (color: red -> color:red)
+                while (i + 1 < length && Character.isWhitespace(css.charAt(i + 1))) {
+                    i++;
+                }
+            }
+        }
+        return out.toString().trim();
+    }
+
+    private static boolean needsSpaceBefore(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return previous != '{' && previous != '}' && previous != ';' && previous != ',' && previous != '>';
+    }
+
+    public record BundleReport(String name, List<String> files, int originalBytes, int minifiedBytes,
+                               int finalBytes, int removedRules) {
+    }
+
+    /**
+     * Risorsa in memoria con nome file e data di modifica (richiesti dal resource handler)
+     */
+    private static class BundleResource extends ByteArrayResource {
+
+        private final String fileName;
+        private final long lastModified;
+
+        BundleResource(byte[] content, String fileName, long lastModified) {
+            super(content, "CSS bundle " + fileName);
+            this.fileName = fileName;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public String getFilename() {
+            return fileName;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+    }
+}
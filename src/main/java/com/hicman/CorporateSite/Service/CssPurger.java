@@ -0,0 +1,178 @@
+package com.hicman.CorporateSite.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rimozione delle regole CSS non usate dai template
+ * Una regola viene tenuta se almeno uno dei suoi selettori usa solo classi e id presenti tra i token
+ * dei template (estratti come parole, quindi anche da th:classappend e dagli script inline).
+ * Lavora sul CSS già minificato (senza commenti); @keyframes, @font-face e simili non vengono toccati.
+ */
+final class CssPurger {
+
+    // Token dei template: qualsiasi parola che può essere il nome di una classe o di un id
+    static final Pattern TEMPLATE_TOKEN = Pattern.compile("[A-Za-z_][\\w-]*");
+
+    private static final Pattern CLASS_OR_ID = Pattern.compile("[.#](-?[A-Za-z_][\\w-]*)");
+
+    // Contenuto di :not(...), :is(...), [attr=...]: non decide se il selettore è usato
+    private static final Pattern BRACKETS = Pattern.compile("\\([^()]*\\)|\\[[^\\]]*\\]");
+
+    // At-rule che contengono regole da filtrare (le altre restano intere)
+    private static final Set<String> NESTED_AT_RULES = Set.of("@media", "@supports", "@layer", "@container");
+
+    private final Set<String> usedTokens;
+    private int removedRules;
+
+    CssPurger(Set<String> usedTokens) {
+        this.usedTokens = usedTokens;
+    }
+
+    /**
+     * Regole rimosse nelle chiamate a purge fatte finora
+     */
+    int getRemovedRules() {
+        return removedRules;
+    }
+
+    String purge(String css) {
+        StringBuilder out = new StringBuilder(css.length());
+        purgeBlock(css, 0, css.length(), out);
+        return out.toString();
+    }
+
+    private void purgeBlock(String css, int start, int end, StringBuilder out) {
+        int i = start;
+        while (i < end) {
+            int open = indexOfOutsideStrings(css, '{', i, end);
+            int semicolon = indexOfOutsideStrings(css, ';', i, end);
+
+            // At-rule senza blocco (@import, @charset)
+            if (semicolon >= 0 && (open < 0 || semicolon < open)) {
+                out.append(css, i, semicolon + 1);
+                i = semicolon + 1;
+                continue;
+            }
+            if (open < 0) {
+                out.append(css, i, end);
+                return;
+            }
+
+            int close = matchingBrace(css, open, end);
+            String prelude = css.substring(i, open).trim();
+
+            if (prelude.startsWith("@")) {
+                String name = prelude.split("[\\s(]", 2)[0].toLowerCase();
+                if (NESTED_AT_RULES.contains(name)) {
+                    StringBuilder inner = new StringBuilder();
+                    purgeBlock(css, open + 1, close, inner);
+                    if (inner.length() > 0) {
+                        out.append(prelude).append('{').append(inner).append('}');
+                    }
+                } else {
+                    out.append(css, i, close + 1);
+                }
+            } else {
+                String selectors = keepUsedSelectors(prelude);
+                if (selectors.isEmpty()) {
+                    removedRules++;
+                } else {
+                    out.append(selectors).append(css, open, close + 1);
+                }
+            }
+            i = close + 1;
+        }
+    }
+
+    /**
+     * Tiene i selettori della lista che possono corrispondere a elementi dei template
+     */
+    private String keepUsedSelectors(String selectorList) {
+        List<String> kept = new ArrayList<>();
+        for (String selector : splitSelectors(selectorList)) {
+            if (isUsed(selector)) {
+                kept.add(selector);
+            }
+        }
+        return String.join(",", kept);
+    }
+
+    private boolean isUsed(String selector) {
+        String withoutBrackets = selector;
+        String previous;
+        do {
+            previous = withoutBrackets;
+            withoutBrackets = BRACKETS.matcher(previous).replaceAll("");
+        } while (!withoutBrackets.equals(previous));
+
+        Matcher matcher = CLASS_OR_ID.matcher(withoutBrackets);
+        while (matcher.find()) {
+            if (!usedTokens.contains(matcher.group(1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Divide una lista di selettori sulle virgole che non sono tra parentesi (es. :is(.a,.b))
+     */
+    private static List<String> splitSelectors(String selectorList) {
+        List<String> selectors = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < selectorList.length(); i++) {
+            char c = selectorList.charAt(i);
+            if (c == '(' || c == '[') {
+                depth++;
+            } else if (c == ')' || c == ']') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                selectors.add(selectorList.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        selectors.add(selectorList.substring(start).trim());
+        return selectors;
+    }
+
+    private static int matchingBrace(String css, int open, int end) {
+        int depth = 0;
+        for (int i = open; i < end; i++) {
+            char c = css.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = endOfString(css, i, end);
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return end - 1;
+    }
+
+    private static int indexOfOutsideStrings(String css, char target, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = css.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = endOfString(css, i, end);
+            } else if (c == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int endOfString(String css, int quote, int end) {
+        char delimiter = css.charAt(quote);
+        int i = quote + 1;
+        while (i < end && css.charAt(i) != delimiter) {
+            i += css.charAt(i) == '\\' ? 2 : 1;
+        }
+        return Math.min(i, end - 1);
+    }
+}
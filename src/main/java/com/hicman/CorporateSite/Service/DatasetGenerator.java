@@ -0,0 +1,256 @@
+package com.hicman.CorporateSite.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generatore di dati sintetici per articoli della rassegna stampa e testimonianze (profilo "dataset")
+ * Riempie H2 con volumi configurabili tramite insert JDBC a blocchi; a parità di seed e volumi
+ * il contenuto (testi, date, immagini, ID) è identico, così i benchmark di build diverse sono confrontabili.
+ * Gira prima di ApplicationReadyEvent: snapshot pubblico, contatori e indici si costruiscono sui dati generati.
+ * Le immagini sono solo riferimenti (/uploads/blog/dataset-*.jpg): i file non vengono creati.
+ */
+@Service
+@Profile("dataset")
+public class DatasetGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    // Data del primo contenuto generato; i successivi si distribuiscono sugli anni seguenti
+    private static final LocalDateTime START = LocalDateTime.of(2015, 1, 1, 8, 0);
+    private static final long SPAN_MINUTES = 10L * 365 * 24 * 60;
+
+    // Anteprima sfocata segnaposto (GIF 1x1), come quella prodotta dalla pipeline delle varianti
+    private static final String LQIP = "data:image/gif;base64,R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7";
+
+    private static final String[] WORDS = {
+        "finanza", "strutturata", "capitale", "investimento", "impresa", "credito", "mercato", "crescita",
+        "operazione", "rating", "cartolarizzazione", "debito", "equity", "advisory", "banca", "fondo",
+        "sostenibilità", "rischio", "liquidità", "portafoglio", "acquisizione", "partner", "progetto", "sviluppo",
+        "ristrutturazione", "rilancio", "internazionalizzazione", "garanzia", "bond", "minibond", "private",
+        "industriale", "gruppo", "filiera", "export", "patrimonio", "valutazione", "piano", "strategia", "nuovo"
+    };
+
+    private static final String[] SOURCES = {
+        "Il Sole 24 Ore", "Milano Finanza", "Corriere Economia", "Affari & Finanza", "ItaliaOggi", "Reuters",
+        "Bloomberg", "Il Messaggero", "La Stampa", "Economy", "Forbes Italia", "Le Fonti", "Bebeez", "AdviseOnly"
+    };
+
+    private static final String[] ROLES = {
+        "CEO", "CFO", "Direttore Generale", "Presidente", "Amministratore Delegato", "Responsabile Finanza", "Fondatore"
+    };
+
+    private static final int[] IMAGE_WIDTHS = {1200, 1600, 1920};
+
+    @Value("${dataset.seed:42}")
+    private long seed;
+
+    @Value("${dataset.posts:100000}")
+    private int posts;
+
+    @Value("${dataset.testimonials:10000}")
+    private int testimonials;
+
+    @Value("${dataset.batch-size:1000}")
+    private int batchSize;
+
+    // Con tabelle non vuote: false = non genera nulla, true = svuota e rigenera
+    @Value("${dataset.replace:false}")
+    private boolean replace;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long existing = count("blog_posts") + count("testimonials");
+        if (existing > 0 && !replace) {
+            logger.info("Dataset sintetico non generato: il database contiene già {} contenuti (dataset.replace=true per rigenerarlo)", existing);
+            return;
+        }
+        if (existing > 0) {
+            // RESTART IDENTITY: gli ID ripartono da 1 e restano uguali tra una generazione e l'altra
+            jdbcTemplate.execute("TRUNCATE TABLE blog_posts RESTART IDENTITY");
+            jdbcTemplate.execute("TRUNCATE TABLE testimonials RESTART IDENTITY");
+        }
+
+        long start = System.currentTimeMillis();
+        // Un Random per tabella: cambiare il volume di una non cambia i contenuti dell'altra
+        generatePosts(new Random(seed));
+        generateTestimonials(new Random(seed + 1));
+        logger.info("Dataset sintetico generato (seed {}): {} articoli, {} testimonianze in {} ms",
+                seed, posts, testimonials, System.currentTimeMillis() - start);
+    }
+
+    // ==================== ARTICOLI ====================
+
+    private void generatePosts(Random random) {
+        String sql = "INSERT INTO blog_posts (title, content, image_url, image_width, image_height, image_lqip, " +
+                "external_link, source_name, published_date, is_published, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < posts; i++) {
+            LocalDateTime published = dateFor(i, posts, random);
+            boolean hasImage = random.nextInt(10) < 7;
+            int width = IMAGE_WIDTHS[random.nextInt(IMAGE_WIDTHS.length)];
+            String source = SOURCES[random.nextInt(SOURCES.length)];
+
+            batch.add(new Object[] {
+                title(random),
+                articleHtml(random, source),
+                hasImage ? String.format("/uploads/blog/dataset-%06d.jpg", i) : null,
+                hasImage ? width : null,
+                hasImage ? width * 9 / 16 : null,
+                hasImage ? LQIP : null,
+                random.nextInt(4) == 0 ? null : "https://example.com/" + slug(source) + "/articolo-" + i,
+                source,
+                Timestamp.valueOf(published),
+                random.nextInt(10) != 0,
+                Timestamp.valueOf(published.minusHours(1 + random.nextInt(72))),
+                Timestamp.valueOf(published)
+            });
+            if (batch.size() == batchSize) {
+                flush(sql, batch);
+            }
+        }
+        flush(sql, batch);
+    }
+
+    private String title(Random random) {
+        String title = sentence(random, 6 + random.nextInt(8));
+        return title.substring(0, title.length() - 1);
+    }
+
+    /**
+     * Corpo HTML come quello dell'editor admin: paragrafi, sottotitoli, elenchi, grassetti e link
+     */
+    private String articleHtml(Random random, String source) {
+        StringBuilder html = new StringBuilder();
+        int paragraphs = 3 + random.nextInt(6);
+        for (int p = 0; p < paragraphs; p++) {
+            if (p > 0 && random.nextInt(4) == 0) {
+                html.append("<h3>").append(title(random)).append("</h3>\n");
+            }
+            html.append("<p>");
+            int sentences = 2 + random.nextInt(5);
+            for (int s = 0; s < sentences; s++) {
+                String sentence = sentence(random, 8 + random.nextInt(14));
+                if (random.nextInt(8) == 0) {
+                    html.append("<strong>").append(sentence).append("</strong>");
+                } else {
+                    html.append(sentence);
+                }
+                html.append(' ');
+            }
+            html.setLength(html.length() - 1);
+            html.append("</p>\n");
+
+            if (random.nextInt(6) == 0) {
+                html.append("<ul>\n");
+                int items = 2 + random.nextInt(4);
+                for (int item = 0; item < items; item++) {
+                    html.append("<li>").append(sentence(random, 4 + random.nextInt(6))).append("</li>\n");
+                }
+                html.append("</ul>\n");
+            }
+        }
+        html.append("<p>Fonte: <a href=\"https://example.com/").append(slug(source)).append("\" target=\"_blank\" rel=\"noopener\">")
+            .append(source).append("</a></p>");
+        return html.toString();
+    }
+
+    // ==================== TESTIMONIANZE ====================
+
+    private void generateTestimonials(Random random) {
+        String sql = "INSERT INTO testimonials (quote, source_name, source_role, logo_url, logo_width, logo_height, " +
+                "logo_lqip, external_link, published_date, published, created_at, updated_at, display_order) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < testimonials; i++) {
+            LocalDateTime published = dateFor(i, testimonials, random);
+            boolean hasLogo = random.nextInt(2) == 0;
+            StringBuilder quote = new StringBuilder();
+            int sentences = 1 + random.nextInt(5);
+            for (int s = 0; s < sentences; s++) {
+                quote.append(sentence(random, 10 + random.nextInt(20))).append(' ');
+            }
+
+            batch.add(new Object[] {
+                quote.toString().trim(),
+                "Azienda " + capitalize(WORDS[random.nextInt(WORDS.length)]) + " " + (i + 1),
+                ROLES[random.nextInt(ROLES.length)],
+                hasLogo ? String.format("/uploads/testimonials/dataset-%06d.png", i) : null,
+                hasLogo ? 400 : null,
+                hasLogo ? 200 : null,
+                hasLogo ? LQIP : null,
+                random.nextInt(3) == 0 ? "https://example.com/testimonianza-" + i : null,
+                Timestamp.valueOf(published),
+                random.nextInt(10) != 0,
+                Timestamp.valueOf(published),
+                Timestamp.valueOf(published),
+                i
+            });
+            if (batch.size() == batchSize) {
+                flush(sql, batch);
+            }
+        }
+        flush(sql, batch);
+    }
+
+    // ==================== UTILITÀ ====================
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    private long count(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Date crescenti distribuite su dieci anni, con qualche ora di scarto
+     */
+    private static LocalDateTime dateFor(int index, int total, Random random) {
+        long minutes = SPAN_MINUTES * index / Math.max(total, 1);
+        return START.plusMinutes(minutes + random.nextInt(12 * 60));
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return capitalize(sb.toString()) + ".";
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static String slug(String text) {
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("(^-|-$)", "");
+    }
+}
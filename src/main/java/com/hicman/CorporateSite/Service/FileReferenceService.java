@@ -0,0 +1,105 @@
+package com.hicman.CorporateSite.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Conteggio dei riferimenti ai file caricati (tabella file_references)
+ * Con l'archiviazione per hash lo stesso file può essere usato da più articoli e testimonianze:
+ * il file viene eliminato solo quando viene rilasciato l'ultimo riferimento.
+ * La riconciliazione ricalcola i conteggi dagli URL salvati in blog_posts e testimonials.
+ */
+@Service
+@Transactional
+public class FileReferenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileReferenceService.class);
+
+    /**
+     * Valore restituito da release per i file senza conteggio (caricati prima dell'archiviazione per hash)
+     */
+    public static final long UNTRACKED = -1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Aggiunge un riferimento al file
+     */
+    public void acquire(String path) {
+        int updated = jdbcTemplate.update(
+            "UPDATE file_references SET ref_count = ref_count + 1 WHERE path = ?", path);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO file_references (path, ref_count) VALUES (?, 1)", path);
+        }
+    }
+
+    /**
+     * Rilascia un riferimento al file
+     *
+     * @return Riferimenti rimasti (0 = il file può essere eliminato), UNTRACKED se il file non è conteggiato
+     */
+    public long release(String path) {
+        int updated = jdbcTemplate.update(
+            "UPDATE file_references SET ref_count = ref_count - 1 WHERE path = ?", path);
+        if (updated == 0) {
+            return UNTRACKED;
+        }
+        long remaining = jdbcTemplate.queryForObject(
+            "SELECT ref_count FROM file_references WHERE path = ?", Long.class, path);
+        if (remaining <= 0) {
+            jdbcTemplate.update("DELETE FROM file_references WHERE path = ?", path);
+            return 0;
+        }
+        return remaining;
+    }
+
+    /**
+     * Verifica se il file ha ancora almeno un riferimento
+     */
+    @Transactional(readOnly = true)
+    public boolean isReferenced(String path) {
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM file_references WHERE path = ?", Long.class, path);
+        return count != null && count > 0;
+    }
+
+    // ==================== RICONCILIAZIONE ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${uploads.reconcile-cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Ricalcola i conteggi dai record che usano i file
+     */
+    public void reconcile() {
+        List<Object[]> references = jdbcTemplate.query(
+            "SELECT path, COUNT(*) FROM (" +
+            "  SELECT image_url AS path FROM blog_posts WHERE image_url IS NOT NULL AND image_url <> ''" +
+            "  UNION ALL" +
+            "  SELECT logo_url AS path FROM testimonials WHERE logo_url IS NOT NULL AND logo_url <> ''" +
+            ") refs GROUP BY path",
+            (rs, rowNum) -> new Object[] { rs.getString(1), rs.getLong(2) });
+
+        jdbcTemplate.update("DELETE FROM file_references");
+        jdbcTemplate.batchUpdate("INSERT INTO file_references (path, ref_count) VALUES (?, ?)", references);
+
+        logger.info("Riferimenti ai file caricati riconciliati: {} file in uso", references.size());
+    }
+}
@@ -1,26 +1,75 @@
 package com.hicman.CorporateSite.Service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.hicman.CorporateSite.Model.ImageVariant;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
+@Timed("hicman.service")
 public class FileStorageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    // Firme accettate per le immagini caricate
+    private static final Set<FileSignature> IMAGE_SIGNATURES = EnumSet.of(FileSignature.JPEG, FileSignature.PNG, FileSignature.WEBP);
+
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
     @Value("${file.upload-dir:uploads}")
     private String uploadDir;
 
+    @Value("${file.max-size-mb:10}")
+    private long maxFileSizeMb;
+
+    @Autowired
+    private FileReferenceService fileReferenceService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Serializza spostamento/eliminazione dei file e conteggio dei riferimenti
+    // (lock esplicito: con i virtual thread l'I/O sotto synchronized bloccherebbe il carrier)
+    private final ReentrantLock storageLock = new ReentrantLock();
+
     /**
      * Salva un file e restituisce il percorso relativo
+     * Il nome è l'hash SHA-256 del contenuto con l'estensione del formato riconosciuto (non quella
+     * del nome originale): caricare di nuovo lo stesso file non crea un duplicato ma aggiunge un
+     * riferimento a quello esistente.
+     * Va chiamato nella transazione che salva il record che usa il file: se il salvataggio fallisce
+     * il rollback annulla anche il riferimento.
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public String storeFile(MultipartFile file, String subDirectory) throws IOException {
         // Normalizza il nome del file
         String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
@@ -35,49 +84,175 @@ public class FileStorageService {
             throw new IOException("Nome file non valido: " + originalFileName);
         }
         
-        // Genera un nome univoco per il file
-        String fileExtension = "";
-        int lastDotIndex = originalFileName.lastIndexOf('.');
-        if (lastDotIndex > 0) {
-            fileExtension = originalFileName.substring(lastDotIndex);
-        }
-        
-        String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
-        
         // Crea la directory se non esiste
         Path uploadPath = Paths.get(uploadDir, subDirectory);
         if (!Files.exists(uploadPath)) {
             Files.createDirectories(uploadPath);
         }
         
-        // Salva il file
-        Path targetLocation = uploadPath.resolve(uniqueFileName);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        // Sposta il file ricevuto accanto alla destinazione, poi calcola l'hash del contenuto
+        ReceivedFile received = receiveToTemp(file, uploadPath, maxFileSizeMb * 1024 * 1024, IMAGE_SIGNATURES);
+        Path tempFile = received.path();
+        try {
+            String fileName = sha256(tempFile) + received.signature().getExtension();
+            String relativePath = "/" + uploadDir + "/" + subDirectory + "/" + fileName;
+            Path targetLocation = uploadPath.resolve(fileName);
+            
+            storageLock.lock();
+            try {
+                // Stesso contenuto già presente: nessuna scrittura, solo un riferimento in più
+                if (!Files.exists(targetLocation)) {
+                    Files.move(tempFile, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+                }
+                fileReferenceService.acquire(relativePath);
+            } finally {
+                storageLock.unlock();
+            }
+
+            DistributionSummary.builder("uploads.bytes")
+                    .description("Dimensione dei file caricati")
+                    .baseUnit("bytes")
+                    .tag("folder", subDirectory)
+                    .register(meterRegistry)
+                    .record(file.getSize());
+            
+            // Restituisce il percorso relativo
+            return relativePath;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Riceve un file caricato nel percorso indicato (es. backup del database da ripristinare)
+     * Il file compare nella destinazione solo a trasferimento completato.
+     *
+     * @param file File caricato
+     * @param target Percorso di destinazione (sovrascritto se esiste)
+     * @param maxBytes Dimensione massima consentita
+     * @param allowed Firme del contenuto accettate
+     */
+    public void receiveFile(MultipartFile file, Path target, long maxBytes, Set<FileSignature> allowed) throws IOException {
+        Path tempFile = receiveToTemp(file, target.toAbsolutePath().getParent(), maxBytes, allowed).path();
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Verifica dimensione e firma, poi trasferisce il file in un temporaneo della directory indicata
+     * Il container ha già scritto la parte multipart su disco: transferTo la sposta (rename) invece di
+     * copiarla, così il contenuto viene scritto una sola volta. Le verifiche avvengono prima di qualsiasi
+     * scrittura nella directory di destinazione.
+     */
+    private ReceivedFile receiveToTemp(MultipartFile file, Path directory, long maxBytes, Set<FileSignature> allowed) throws IOException {
+        if (file.getSize() > maxBytes) {
+            throw new IOException("File troppo grande: " + file.getSize() + " byte (massimo " + maxBytes + ")");
+        }
+        
+        byte[] header = new byte[FileSignature.HEADER_LENGTH];
+        int headerLength;
+        try (InputStream in = file.getInputStream()) {
+            headerLength = in.readNBytes(header, 0, header.length);
+        }
+        FileSignature signature = FileSignature.detect(header, headerLength);
+        if (signature == null || !allowed.contains(signature)) {
+            throw new IOException("Contenuto del file non valido: atteso " + allowed);
+        }
         
-        // Restituisce il percorso relativo
-        return "/" + uploadDir + "/" + subDirectory + "/" + uniqueFileName;
+        Files.createDirectories(directory);
+        // Percorso assoluto e non ancora esistente, come richiesto da Part.write per spostare il file
+        Path tempFile = directory.resolve(".upload-" + UUID.randomUUID() + ".tmp").toAbsolutePath();
+        try {
+            file.transferTo(tempFile.toFile());
+            
+            // Limite rigido anche sui byte effettivamente ricevuti
+            if (Files.size(tempFile) > maxBytes) {
+                throw new IOException("File troppo grande: massimo " + maxBytes + " byte");
+            }
+            return new ReceivedFile(tempFile, signature);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Hash SHA-256 del file letto tramite FileChannel con buffer diretto
+     */
+    private String sha256(Path path) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
     }
 
     /**
      * Elimina un file dato il percorso
+     * Con più riferimenti allo stesso file ne rilascia solo uno; il file viene rimosso con l'ultimo.
+     * Va chiamato nella transazione che aggiorna o elimina il record che usava il file: il riferimento
+     * viene rilasciato subito, il file tolto dal disco solo dopo il commit (con un rollback il record
+     * continua a puntare a un file esistente).
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void deleteFile(String filePath) {
+        if (filePath == null || filePath.isEmpty()) {
+            return;
+        }
+        if (fileReferenceService.release(filePath) > 0) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeFromDisk(filePath);
+            }
+        });
+    }
+
+    /**
+     * Rimuove dal disco il file e le sue varianti ridimensionate
+     */
+    private void removeFromDisk(String filePath) {
+        storageLock.lock();
         try {
-            if (filePath != null && !filePath.isEmpty()) {
-                // Rimuovi il primo '/' se presente
-                if (filePath.startsWith("/")) {
-                    filePath = filePath.substring(1);
-                }
-                
-                Path path = Paths.get(filePath);
-                Files.deleteIfExists(path);
+            // Lo stesso contenuto potrebbe essere stato caricato di nuovo dopo il rilascio
+            if (fileReferenceService.isReferenced(filePath)) {
+                return;
+            }
+
+            Files.deleteIfExists(resolvePath(filePath));
+
+            // Elimina anche le varianti ridimensionate (se generate)
+            for (ImageVariant variant : ImageVariant.values()) {
+                Files.deleteIfExists(resolvePath(variant.urlFor(filePath)));
             }
         } catch (IOException e) {
-            System.err.println("Errore durante l'eliminazione del file: " + filePath);
-            e.printStackTrace();
+            logger.warn("Errore durante l'eliminazione del file {}", filePath, e);
+        } finally {
+            storageLock.unlock();
         }
     }
 
+    /**
+     * Percorso su disco di un file dato il suo URL relativo (es. /uploads/blog/abc.jpg)
+     */
+    public Path resolvePath(String filePath) {
+        // Rimuovi il primo '/' se presente
+        if (filePath.startsWith("/")) {
+            filePath = filePath.substring(1);
+        }
+        return Paths.get(filePath);
+    }
+
     /**
      * Verifica se un file esiste
      */
@@ -146,4 +321,83 @@ public class FileStorageService {
         }
         return false;
     }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 è garantito da ogni JVM
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * File ricevuto in un temporaneo, con il formato riconosciuto dal contenuto
+     */
+    private record ReceivedFile(Path path, FileSignature signature) {
+    }
+
+    /**
+     * Firme (magic bytes) dei formati accettati in upload
+     */
+    public enum FileSignature {
+        JPEG(".jpg", new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF }),
+        PNG(".png", new byte[] { (byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A }),
+        WEBP(".webp", new byte[] { 'R', 'I', 'F', 'F' }, 8, new byte[] { 'W', 'E', 'B', 'P' }),
+        H2_DATABASE(".mv.db", new byte[] { 'H', ':', '2', ',' });
+
+        // Byte letti dall'inizio del file per riconoscere il formato
+        static final int HEADER_LENGTH = 12;
+
+        private final String extension;
+        private final byte[] prefix;
+        private final int secondOffset;
+        private final byte[] second;
+
+        FileSignature(String extension, byte[] prefix) {
+            this(extension, prefix, 0, new byte[0]);
+        }
+
+        FileSignature(String extension, byte[] prefix, int secondOffset, byte[] second) {
+            this.extension = extension;
+            this.prefix = prefix;
+            this.secondOffset = secondOffset;
+            this.second = second;
+        }
+
+        /**
+         * Estensione dei file salvati con questo formato (con il punto iniziale)
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Riconosce il formato dai primi byte del file (null se sconosciuto)
+         */
+        static FileSignature detect(byte[] header, int length) {
+            for (FileSignature signature : values()) {
+                if (signature.matches(header, length)) {
+                    return signature;
+                }
+            }
+            return null;
+        }
+
+        private boolean matches(byte[] header, int length) {
+            return matchesAt(header, length, 0, prefix) && matchesAt(header, length, secondOffset, second);
+        }
+
+        private static boolean matchesAt(byte[] header, int length, int offset, byte[] expected) {
+            if (offset + expected.length > length) {
+                return false;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if (header[offset + i] != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
\ No newline at end of file
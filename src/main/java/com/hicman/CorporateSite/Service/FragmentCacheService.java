@@ -0,0 +1,92 @@
+package com.hicman.CorporateSite.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service per la cache dei frammenti Thymeleaf renderizzati (header, navbar, footer)
+ * La chiave include template, selettore, lingua e parametri del frammento
+ */
+@Service
+public class FragmentCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FragmentCacheService.class);
+
+    @Value("${fragment-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fragment-cache.max-entries:500}")
+    private int maxEntries;
+
+    // LinkedHashMap in access-order = LRU, protetta dal lock sull'istanza
+    private final LinkedHashMap<String, String> fragments = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ottiene l'HTML di un frammento dalla cache (null se assente)
+     */
+    public String get(String key) {
+        String html;
+        synchronized (fragments) {
+            html = fragments.get(key);
+        }
+        if (html != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return html;
+    }
+
+    /**
+     * Salva l'HTML renderizzato di un frammento
+     */
+    public void put(String key, String html) {
+        synchronized (fragments) {
+            fragments.put(key, html);
+        }
+    }
+
+    /**
+     * Svuota la cache (deploy, modifica dei file messages_*.properties)
+     */
+    public void invalidateAll() {
+        synchronized (fragments) {
+            fragments.clear();
+        }
+        logger.info("Cache frammenti svuotata");
+    }
+
+    // ==================== STATISTICHE ====================
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int getEntryCount() {
+        synchronized (fragments) {
+            return fragments.size();
+        }
+    }
+}
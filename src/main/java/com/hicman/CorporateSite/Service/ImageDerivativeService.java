@@ -0,0 +1,439 @@
+package com.hicman.CorporateSite.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hicman.CorporateSite.Model.ImageVariant;
+import com.hicman.CorporateSite.Repository.BlogPostRepository;
+import com.hicman.CorporateSite.Repository.TestimonialRepository;
+import com.hicman.CorporateSite.Service.ContentChangedEvent.ContentType;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pipeline delle varianti per le immagini caricate (articoli e loghi delle testimonianze)
+ * Genera le versioni ridimensionate (thumb, card, hero) ricompresse e senza metadati EXIF,
+ * poi registra dimensioni e anteprima sfocata (LQIP) su BlogPost e Testimonial.
+ * L'orientamento EXIF viene applicato ai pixel prima del ridimensionamento, dato che le varianti
+ * non conservano il tag; le immagini oltre image.derivatives.max-pixels non vengono decodificate.
+ * Il lavoro avviene su un pool limitato: con la coda piena l'elaborazione passa al thread chiamante,
+ * che rallenta invece di accumulare immagini decodificate in memoria.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    // Larghezza dell'anteprima sfocata inserita inline nella pagina
+    private static final int LQIP_WIDTH = 16;
+
+    // Lunghezza massima della colonna image_lqip / logoLqip
+    private static final int LQIP_MAX_LENGTH = 2000;
+
+    // Tag EXIF Orientation (valori 1-8, 1 = nessuna trasformazione)
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+    @Value("${image.derivatives.threads:2}")
+    private int threads;
+
+    @Value("${image.derivatives.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${image.derivatives.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    // 40 megapixel: circa 160 MB decodificati in ARGB
+    @Value("${image.derivatives.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private TestimonialRepository testimonialRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private ThreadPoolExecutor executor;
+
+    // Transazione propria: con la coda piena il task gira nell'afterCommit del chiamante,
+    // dove una transazione REQUIRED si unirebbe a quella già conclusa e l'UPDATE non verrebbe salvato
+    private TransactionTemplate transactionTemplate;
+
+    // Immagini già in coda (evita elaborazioni doppie dello stesso file)
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Richiede la generazione delle varianti di un'immagine caricata
+     * Se è attiva una transazione l'elaborazione parte dopo il commit, quando il record che usa l'immagine è salvato.
+     *
+     * @param imageUrl URL relativo dell'immagine originale (es. /uploads/blog/abc.jpg)
+     */
+    public void requestDerivatives(String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(imageUrl);
+                }
+            });
+        } else {
+            submit(imageUrl);
+        }
+    }
+
+    /**
+     * Elaborazioni in coda o in corso
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void submit(String imageUrl) {
+        if (!pending.add(imageUrl)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                process(imageUrl);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Errore durante la generazione delle varianti di {}", imageUrl, e);
+            } finally {
+                pending.remove(imageUrl);
+            }
+        });
+    }
+
+    // ==================== ELABORAZIONE ====================
+
+    private void process(String imageUrl) throws IOException {
+        Path original = fileStorageService.resolvePath(imageUrl);
+        if (!Files.exists(original)) {
+            return;
+        }
+
+        BufferedImage source = readImage(original, imageUrl);
+        if (source == null) {
+            return;
+        }
+
+        String format = ImageVariant.formatFor(imageUrl);
+        for (ImageVariant variant : ImageVariant.values()) {
+            Path target = fileStorageService.resolvePath(variant.urlFor(imageUrl));
+            if (!Files.exists(target)) {
+                writeAtomically(resize(source, variant.getWidth(), format), format, target);
+            }
+        }
+
+        String lqip = buildLqip(source, format);
+        if (lqip.length() > LQIP_MAX_LENGTH) {
+            lqip = null;
+        }
+        updateMetadata(imageUrl, source.getWidth(), source.getHeight(), lqip);
+
+        logger.info("Varianti generate per {} ({}x{})", imageUrl, source.getWidth(), source.getHeight());
+    }
+
+    /**
+     * Decodifica l'originale e lo raddrizza secondo l'orientamento EXIF
+     * Le dimensioni vengono lette dall'intestazione prima di decodificare: un PNG di pochi MB può
+     * occupare GB una volta decompresso, e con la coda piena la decodifica gira su una richiesta admin.
+     *
+     * @return Immagine orientata, null se il formato non è supportato o l'immagine è troppo grande
+     */
+    private BufferedImage readImage(Path original, String imageUrl) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                logger.warn("Formato non supportato, varianti non generate per {}", imageUrl);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    logger.warn("Immagine troppo grande ({}x{}, massimo {} pixel), varianti non generate per {}",
+                            width, height, maxPixels, imageUrl);
+                    return null;
+                }
+                return applyOrientation(reader.read(0), readOrientation(original));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Registra i metadati su articoli e testimonianze che usano l'immagine e aggiorna lo snapshot pubblico
+     */
+    private void updateMetadata(String imageUrl, int width, int height, String lqip) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (blogPostRepository.updateImageMetadata(imageUrl, width, height, lqip) > 0) {
+                eventPublisher.publishEvent(new ContentChangedEvent(ContentType.BLOG_POST));
+            }
+            if (testimonialRepository.updateLogoMetadata(imageUrl, width, height, lqip) > 0) {
+                eventPublisher.publishEvent(new ContentChangedEvent(ContentType.TESTIMONIAL));
+            }
+        });
+    }
+
+    // ==================== ORIENTAMENTO EXIF ====================
+
+    /**
+     * Legge il tag Orientation dal segmento APP1 Exif di un JPEG (1 se assente o non JPEG)
+     */
+    static int readOrientation(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                // Fine delle intestazioni (inizio dei dati compressi) o file non valido
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                    return 1;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return 1;
+                }
+                if (marker == 0xFFE1) {
+                    int orientation = parseExifOrientation(in.readNBytes(length));
+                    if (orientation > 0) {
+                        return orientation;
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (EOFException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * Orientation dall'IFD0 di un segmento Exif (0 se il segmento non è Exif o non contiene il tag)
+     */
+    private static int parseExifOrientation(byte[] segment) {
+        if (segment.length < 14 || segment[0] != 'E' || segment[1] != 'x' || segment[2] != 'i'
+                || segment[3] != 'f' || segment[4] != 0 || segment[5] != 0) {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(segment, 6, segment.length - 6).slice();
+        try {
+            if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+                tiff.order(ByteOrder.LITTLE_ENDIAN);
+            } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+                return 0;
+            }
+            int ifd = tiff.getInt(4);
+            int entries = Short.toUnsignedInt(tiff.getShort(ifd));
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + i * 12;
+                if (Short.toUnsignedInt(tiff.getShort(entry)) == EXIF_ORIENTATION_TAG) {
+                    int orientation = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                    return orientation >= 1 && orientation <= 8 ? orientation : 1;
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // Segmento troncato o offset non validi: come se il tag mancasse
+        }
+        return 0;
+    }
+
+    /**
+     * Ruota/ribalta l'immagine come indicato dall'orientamento EXIF (5-8 scambiano larghezza e altezza)
+     */
+    static BufferedImage applyOrientation(BufferedImage source, int orientation) {
+        int w = source.getWidth();
+        int h = source.getHeight();
+        // AffineTransform(m00, m10, m01, m11, m02, m12): x' = m00·x + m01·y + m02, y' = m10·x + m11·y + m12
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);   // specchio orizzontale
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);  // 180°
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);   // specchio verticale
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);    // trasposizione
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);   // 90° orario
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);  // trasversale
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);   // 90° antiorario
+            default -> null;
+        };
+        if (transform == null) {
+            return source;
+        }
+
+        boolean swap = orientation >= 5;
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage target = new BufferedImage(swap ? h : w, swap ? w : h, type);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // ==================== RIDIMENSIONAMENTO ====================
+
+    /**
+     * Ridimensiona per dimezzamenti successivi (qualità migliore di un singolo passaggio bilineare)
+     * Non ingrandisce mai: se l'originale è più piccolo viene solo ricompresso.
+     */
+    private BufferedImage resize(BufferedImage source, int maxWidth, String format) {
+        int targetWidth = Math.min(maxWidth, source.getWidth());
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = width == targetWidth ? targetHeight : Math.max(targetHeight, height / 2);
+            current = draw(current, width, height, format);
+        } while (width > targetWidth);
+        return current;
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height, String format) {
+        boolean alpha = "png".equals(format);
+        BufferedImage target = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            if (!alpha) {
+                // JPEG non supporta la trasparenza: sfondo bianco invece di nero
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Anteprima minuscola codificata come data URI (poche centinaia di byte)
+     */
+    private String buildLqip(BufferedImage source, String format) throws IOException {
+        BufferedImage tiny = resize(source, LQIP_WIDTH, format);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encode(tiny, format, out, 0.5f);
+        String mimeType = "png".equals(format) ? "image/png" : "image/jpeg";
+        return "data:" + mimeType + ";base64," + Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    /**
+     * Scrive su file temporaneo e rinomina: le richieste non vedono mai una variante incompleta
+     */
+    private void writeAtomically(BufferedImage image, String format, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                encode(image, format, out, jpegQuality);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Codifica JPEG progressivo con qualità esplicita, o PNG
+     * I metadati dell'originale (EXIF, GPS, profilo fotocamera) non vengono copiati.
+     */
+    private void encode(BufferedImage image, String format, OutputStream out, float quality) throws IOException {
+        if ("png".equals(format)) {
+            ImageIO.write(image, "png", out);
+            return;
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.hicman.CorporateSite.Service;
+
+import java.util.List;
+
+/**
+ * Pagina di risultati con paginazione keyset (senza COUNT né OFFSET)
+ * I cursori sono i token da passare come parametri "after" / "before" per la pagina successiva / precedente
+ */
+public record KeysetPage<T>(List<T> content, String previousCursor, String nextCursor) {
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+}
@@ -0,0 +1,214 @@
+package com.hicman.CorporateSite.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service per la cache delle pagine HTML renderizzate (pagine statiche di marketing)
+ * Mantiene in memoria le risposte già generate da Thymeleaf, con limite di memoria ed eviction LRU
+ */
+@Service
+public class PageCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageCacheService.class);
+
+    @Value("${page-cache.max-bytes:8388608}")
+    private long maxBytes;
+
+    // LinkedHashMap in access-order = LRU, protetta dal lock sull'istanza
+    private final LinkedHashMap<String, CachedPage> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Ottiene una pagina dalla cache (null se assente)
+     */
+    public CachedPage get(String key) {
+        CachedPage page;
+        synchronized (pages) {
+            page = pages.get(key);
+        }
+        if (page != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return page;
+    }
+
+    /**
+     * Inserisce una pagina in cache, eliminando le meno usate se si supera il limite di memoria
+     */
+    public void put(String key, CachedPage page) {
+        if (page.getSizeInBytes() > maxBytes) {
+            return;
+        }
+        synchronized (pages) {
+            CachedPage previous = pages.put(key, page);
+            if (previous != null) {
+                currentBytes -= previous.getSizeInBytes();
+            }
+            currentBytes += page.getSizeInBytes();
+
+            Iterator<Map.Entry<String, CachedPage>> it = pages.entrySet().iterator();
+            while (currentBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, CachedPage> eldest = it.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                currentBytes -= eldest.getValue().getSizeInBytes();
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Svuota completamente la cache (deploy, cambio messaggi, ecc.)
+     */
+    public void invalidateAll() {
+        synchronized (pages) {
+            pages.clear();
+            currentBytes = 0;
+        }
+        logger.info("Cache pagine svuotata");
+    }
+
+    /**
+     * Costruisce la voce di cache a partire dal body renderizzato.
+     * Se la pagina contiene il token CSRF (form contatti), il token viene sostituito
+     * da un "buco" che verrà riempito con il token del visitatore a ogni risposta.
+     */
+    public CachedPage createPage(byte[] body, String contentType, String csrfToken) throws IOException {
+        String html = new String(body, StandardCharsets.UTF_8);
+
+        if (csrfToken != null && !csrfToken.isEmpty() && html.contains(csrfToken)) {
+            String[] parts = html.split(Pattern.quote(csrfToken), -1);
+            byte[][] segments = new byte[parts.length][];
+            for (int i = 0; i < parts.length; i++) {
+                segments[i] = parts[i].getBytes(StandardCharsets.UTF_8);
+            }
+            // Le pagine con token non hanno variante gzip: il contenuto cambia per visitatore
+            return new CachedPage(contentType, segments, null);
+        }
+
+        return new CachedPage(contentType, new byte[][] { body }, gzip(body));
+    }
+
+    // ==================== STATISTICHE ====================
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getSizeInBytes() {
+        synchronized (pages) {
+            return currentBytes;
+        }
+    }
+
+    public int getEntryCount() {
+        synchronized (pages) {
+            return pages.size();
+        }
+    }
+
+    // ==================== UTILITY METHODS ====================
+
+    private byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bos)) {
+            gzip.write(body);
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Pagina renderizzata in cache: variante identity (eventualmente a segmenti) e variante gzip
+     */
+    public static final class CachedPage {
+
+        private final String contentType;
+        private final byte[][] segments;
+        private final byte[] gzipBody;
+        private final long sizeInBytes;
+
+        CachedPage(String contentType, byte[][] segments, byte[] gzipBody) {
+            this.contentType = contentType;
+            this.segments = segments;
+            this.gzipBody = gzipBody;
+
+            long size = gzipBody != null ? gzipBody.length : 0;
+            for (byte[] segment : segments) {
+                size += segment.length;
+            }
+            this.sizeInBytes = size;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getGzipBody() {
+            return gzipBody;
+        }
+
+        public long getSizeInBytes() {
+            return sizeInBytes;
+        }
+
+        /**
+         * Indica se la pagina richiede il token CSRF del visitatore corrente
+         */
+        public boolean needsCsrfToken() {
+            return segments.length > 1;
+        }
+
+        /**
+         * Lunghezza del body identity con il token indicato
+         */
+        public int getContentLength(byte[] csrfToken) {
+            int length = 0;
+            for (byte[] segment : segments) {
+                length += segment.length;
+            }
+            return length + (segments.length - 1) * csrfToken.length;
+        }
+
+        /**
+         * Scrive il body identity, inserendo il token CSRF nei punti previsti
+         */
+        public void writeTo(OutputStream out, byte[] csrfToken) throws IOException {
+            for (int i = 0; i < segments.length; i++) {
+                if (i > 0) {
+                    out.write(csrfToken);
+                }
+                out.write(segments[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.hicman.CorporateSite.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursore per la paginazione keyset: posizione (data, id) dell'ultimo/primo elemento di una pagina
+ * Viene esposto negli URL come token opaco (Base64 URL-safe)
+ */
+public record PageCursor(LocalDateTime date, Long id) {
+
+    /**
+     * Codifica il cursore in un token opaco
+     */
+    public String encode() {
+        String raw = (date != null ? date.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un token; restituisce null se assente o non valido
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                return null;
+            }
+            String datePart = raw.substring(0, separator);
+            LocalDateTime date = datePart.isEmpty() ? null : LocalDateTime.parse(datePart);
+            return new PageCursor(date, Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.hicman.CorporateSite.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+import com.hicman.CorporateSite.Model.Testimonial;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Validatori HTTP (ETag) per le pagine pubbliche della sezione Press
+ * Calcolati dalla versione dei contenuti nello snapshot in memoria (id + updatedAt), dalla lingua
+ * e dall'identificativo del deploy (che cambia con template e messaggi): il confronto con
+ * If-None-Match avviene prima del render, e una richiesta ripetuta riceve 304 senza corpo.
+ * Nessun Last-Modified: la data più recente dei contenuti non cambia quando un contenuto viene
+ * ritirato, né con la lingua o il deploy, e un If-Modified-Since darebbe 304 su una pagina cambiata.
+ */
+@Service
+public class PageValidatorService {
+
+    // Le pagine dipendono dalla lingua (cookie): cache solo del browser, sempre rivalidata
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private final String deployId;
+
+    public PageValidatorService(@Value("${app.deploy-id:}") String deployId) {
+        // Senza deploy id configurato ogni avvio invalida i validatori emessi in precedenza
+        this.deployId = StringUtils.hasText(deployId) ? deployId : Long.toHexString(System.currentTimeMillis());
+    }
+
+    /**
+     * Validatori del dettaglio articolo: l'articolo e i correlati mostrati in pagina
+     */
+    public PageValidators forArticle(BlogPost post, List<BlogPost> relatedPosts, Locale locale) {
+        StringBuilder version = new StringBuilder("article|").append(versionOf(post));
+        for (BlogPost related : relatedPosts) {
+            version.append('|').append(versionOf(related));
+        }
+        return build(version, locale);
+    }
+
+    /**
+     * Validatori della pagina "Dicono di Noi": tutte le testimonianze pubblicate, nell'ordine mostrato
+     */
+    public PageValidators forTestimonials(List<Testimonial> testimonials, Locale locale) {
+        StringBuilder version = new StringBuilder("testimonials");
+        for (Testimonial testimonial : testimonials) {
+            version.append('|').append(testimonial.getId()).append('@').append(testimonial.getUpdatedAt())
+                   .append('/').append(testimonial.getLogoWidth());
+        }
+        return build(version, locale);
+    }
+
+    /**
+     * Imposta Cache-Control e confronta i validatori con la richiesta
+     *
+     * @return true se il client ha già la versione corrente (risposta 304 già preparata, non renderizzare)
+     */
+    public boolean checkNotModified(ServletWebRequest request, PageValidators validators) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        return request.checkNotModified(validators.etag());
+    }
+
+    // Le dimensioni dell'immagine sono scritte dalla pipeline delle varianti senza toccare updatedAt
+    private static String versionOf(BlogPost post) {
+        return post.getId() + "@" + post.getUpdatedAt() + "/" + post.getImageWidth();
+    }
+
+    private PageValidators build(StringBuilder version, Locale locale) {
+        version.append('|').append(locale.toLanguageTag()).append('|').append(deployId);
+        return new PageValidators("W/\"" + hash(version.toString()) + "\"");
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            // 16 byte bastano a distinguere le versioni di una pagina
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record PageValidators(String etag) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.hicman.CorporateSite.Service;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+import com.hicman.CorporateSite.Model.Testimonial;
+
+import java.util.List;
+
+/**
+ * Evento pubblicato da {@link PublishedContentStore} dopo la sostituzione dello snapshot
+ * Permette agli indici derivati (ricerca, articoli correlati) di aggiornarsi in modo incrementale
+ */
+public record PublishedContentRefreshedEvent(List<BlogPost> posts, List<Testimonial> testimonials) {
+}
@@ -0,0 +1,296 @@
+package com.hicman.CorporateSite.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+import com.hicman.CorporateSite.Model.Testimonial;
+import com.hicman.CorporateSite.Repository.BlogPostRepository;
+import com.hicman.CorporateSite.Repository.TestimonialRepository;
+import com.hicman.CorporateSite.Service.ContentChangedEvent.ContentType;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshot in memoria dei contenuti pubblicati (articoli e testimonianze)
+ * Le pagine pubbliche leggono da qui senza accedere ad H2.
+ * Lo snapshot è immutabile e viene ricostruito e sostituito atomicamente dopo i commit
+ * che modificano i contenuti (vedi {@link ContentChangedEvent}).
+ * Il ricaricamento avviene su un thread dedicato, fuori dalla richiesta che ha fatto il commit:
+ * gli eventi arrivati nel frattempo vengono accorpati in un solo giro successivo, e viene
+ * ricaricato solo il tipo di contenuto modificato (una testimonianza non ricarica gli articoli).
+ */
+@Service
+public class PublishedContentStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublishedContentStore.class);
+
+    // Ordinamento pubblico dei post: data di pubblicazione e id decrescenti (chiave della paginazione keyset)
+    private static final Comparator<BlogPost> PUBLISHED_ORDER = Comparator
+            .comparing(BlogPost::getPublishedDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(BlogPost::getId, Comparator.reverseOrder());
+
+    @Autowired
+    private BlogPostRepository blogPostRepository;
+
+    @Autowired
+    private TestimonialRepository testimonialRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Tipi di contenuto modificati in attesa del prossimo ricaricamento
+    private final Set<ContentType> pendingChanges = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    private ExecutorService refreshExecutor;
+
+    @PostConstruct
+    public void init() {
+        refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "content-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    // ==================== LETTURA ====================
+
+    /**
+     * Post pubblicati paginati, ordinati per data di pubblicazione (più recenti prima)
+     */
+    public Page<BlogPost> getPublishedPosts(Pageable pageable) {
+        List<BlogPost> posts = snapshot.posts();
+        int from = (int) Math.min(pageable.getOffset(), posts.size());
+        int to = Math.min(from + pageable.getPageSize(), posts.size());
+        return new PageImpl<>(posts.subList(from, to), pageable, posts.size());
+    }
+
+    /**
+     * Pagina di post pubblicati successiva al cursore (prima pagina se il cursore è null)
+     */
+    public KeysetPage<BlogPost> getPublishedPostsAfter(PageCursor cursor, int size) {
+        List<BlogPost> posts = snapshot.posts();
+        int from = cursor == null ? 0 : positionOf(posts, cursor, true);
+        int to = Math.min(from + size, posts.size());
+        return toKeysetPage(posts, from, to);
+    }
+
+    /**
+     * Pagina di post pubblicati precedente al cursore (navigazione all'indietro)
+     */
+    public KeysetPage<BlogPost> getPublishedPostsBefore(PageCursor cursor, int size) {
+        List<BlogPost> posts = snapshot.posts();
+        int to = positionOf(posts, cursor, false);
+        int from = Math.max(0, to - size);
+        if (from == 0) {
+            // Tornati all'inizio: mostra sempre una prima pagina completa
+            to = Math.min(size, posts.size());
+        }
+        return toKeysetPage(posts, from, to);
+    }
+
+    /**
+     * Post pubblicato per ID
+     */
+    public Optional<BlogPost> getPublishedPostById(Long id) {
+        return Optional.ofNullable(snapshot.postsById().get(id));
+    }
+
+    /**
+     * Ultimi N post pubblicati
+     */
+    public List<BlogPost> getLatestPublishedPosts(int limit) {
+        List<BlogPost> posts = snapshot.posts();
+        return posts.subList(0, Math.min(limit, posts.size()));
+    }
+
+    /**
+     * Tutti i post pubblicati (ordinati per data di pubblicazione)
+     */
+    public List<BlogPost> getAllPublishedPosts() {
+        return snapshot.posts();
+    }
+
+    /**
+     * Conta i post pubblicati
+     */
+    public long countPublishedPosts() {
+        return snapshot.posts().size();
+    }
+
+    /**
+     * Testimonianze pubblicate ordinate per data (più recenti prima)
+     */
+    public List<Testimonial> getPublishedTestimonials() {
+        return snapshot.testimonials();
+    }
+
+    /**
+     * Testimonianza pubblicata per ID
+     */
+    public Optional<Testimonial> getPublishedTestimonialById(Long id) {
+        return Optional.ofNullable(snapshot.testimonialsById().get(id));
+    }
+
+    // ==================== AGGIORNAMENTO ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Segna il tipo di contenuto come modificato e programma un ricaricamento, se non ce n'è già uno in coda
+     */
+    @TransactionalEventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        pendingChanges.add(event.contentType());
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refreshExecutor.execute(this::refreshPending);
+        }
+    }
+
+    /**
+     * Ricarica i tipi modificati dall'ultimo giro
+     * Il flag viene azzerato prima di leggere le modifiche: un evento che arriva durante il
+     * ricaricamento programma un nuovo giro invece di andare perso.
+     */
+    private void refreshPending() {
+        refreshScheduled.set(false);
+        boolean posts = pendingChanges.remove(ContentType.BLOG_POST);
+        boolean testimonials = pendingChanges.remove(ContentType.TESTIMONIAL);
+        if (!posts && !testimonials) {
+            return;
+        }
+        try {
+            refresh(posts, testimonials);
+        } catch (RuntimeException e) {
+            logger.error("Errore durante l'aggiornamento dello snapshot dei contenuti pubblicati", e);
+        }
+    }
+
+    /**
+     * Ricarica tutti i contenuti pubblicati dal database e sostituisce lo snapshot
+     */
+    public void rebuild() {
+        refresh(true, true);
+    }
+
+    /**
+     * Ricarica i contenuti indicati e sostituisce lo snapshot (copy-on-write), riusando le parti invariate
+     * Serializzato per evitare che una ricostruzione più vecchia sovrascriva una più recente
+     * (lock esplicito invece di synchronized: con i virtual thread le query non bloccano il carrier)
+     */
+    private void refresh(boolean reloadPosts, boolean reloadTestimonials) {
+        rebuildLock.lock();
+        try {
+            Snapshot current = snapshot;
+
+            List<BlogPost> posts = current.posts();
+            Map<Long, BlogPost> postsById = current.postsById();
+            if (reloadPosts) {
+                posts = blogPostRepository.findByPublishedTrueOrderByPublishedDateDesc()
+                        .stream()
+                        .sorted(PUBLISHED_ORDER)
+                        .toList();
+                postsById = indexById(posts, BlogPost::getId);
+            }
+
+            List<Testimonial> testimonials = current.testimonials();
+            Map<Long, Testimonial> testimonialsById = current.testimonialsById();
+            if (reloadTestimonials) {
+                testimonials = testimonialRepository.findByPublishedTrueOrderByPublishedDateDesc()
+                        .stream()
+                        .sorted(Comparator.comparing(Testimonial::getPublishedDate, Comparator.nullsLast(Comparator.reverseOrder()))
+                                .thenComparingInt(Testimonial::getDisplayOrder))
+                        .toList();
+                testimonialsById = indexById(testimonials, Testimonial::getId);
+            }
+
+            snapshot = new Snapshot(posts, postsById, testimonials, testimonialsById);
+
+            logger.info("Snapshot contenuti pubblicati aggiornato: {} articoli, {} testimonianze",
+                    posts.size(), testimonials.size());
+
+            eventPublisher.publishEvent(new PublishedContentRefreshedEvent(snapshot.posts(), snapshot.testimonials()));
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // ==================== UTILITY METHODS ====================
+
+    /**
+     * Posizione del cursore nella lista ordinata (ricerca binaria)
+     * after = true: indice del primo elemento successivo al cursore; false: indice del cursore stesso
+     */
+    private int positionOf(List<BlogPost> posts, PageCursor cursor, boolean after) {
+        BlogPost probe = new BlogPost();
+        probe.setPublishedDate(cursor.date());
+        probe.setId(cursor.id());
+
+        int position = Collections.binarySearch(posts, probe, PUBLISHED_ORDER);
+        if (position >= 0) {
+            return after ? position + 1 : position;
+        }
+        return -position - 1;
+    }
+
+    private KeysetPage<BlogPost> toKeysetPage(List<BlogPost> posts, int from, int to) {
+        List<BlogPost> content = posts.subList(from, to);
+        if (content.isEmpty()) {
+            return new KeysetPage<>(content, null, null);
+        }
+        String previousCursor = from > 0 ? cursorOf(content.get(0)).encode() : null;
+        String nextCursor = to < posts.size() ? cursorOf(content.get(content.size() - 1)).encode() : null;
+        return new KeysetPage<>(content, previousCursor, nextCursor);
+    }
+
+    private static PageCursor cursorOf(BlogPost post) {
+        return new PageCursor(post.getPublishedDate(), post.getId());
+    }
+
+    private static <T> Map<Long, T> indexById(List<T> items, Function<T, Long> idGetter) {
+        return Collections.unmodifiableMap(items.stream()
+                .collect(Collectors.toMap(idGetter, Function.identity())));
+    }
+
+    private record Snapshot(List<BlogPost> posts, Map<Long, BlogPost> postsById,
+                            List<Testimonial> testimonials, Map<Long, Testimonial> testimonialsById) {
+
+        static final Snapshot EMPTY = new Snapshot(List.of(), Map.of(), List.of(), Map.of());
+    }
+}
@@ -0,0 +1,89 @@
+package com.hicman.CorporateSite.Service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limiti di frequenza per l'invio del form contatti
+ * Un bucket per IP del client e uno per indirizzo email dichiarato nel form:
+ * un bot che cambia email resta limitato dall'IP, uno che cambia IP dall'email.
+ */
+@Service
+public class RateLimiterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiterService.class);
+
+    @Value("${rate-limit.contact.ip-capacity:5}")
+    private int ipCapacity;
+
+    @Value("${rate-limit.contact.email-capacity:3}")
+    private int emailCapacity;
+
+    @Value("${rate-limit.contact.refill-period:10m}")
+    private Duration refillPeriod;
+
+    @Value("${rate-limit.contact.max-clients:10000}")
+    private int maxClients;
+
+    private TokenBucketRateLimiter ipLimiter;
+
+    private TokenBucketRateLimiter emailLimiter;
+
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        ipLimiter = new TokenBucketRateLimiter(ipCapacity, refillPeriod, maxClients);
+        emailLimiter = new TokenBucketRateLimiter(emailCapacity, refillPeriod, maxClients);
+    }
+
+    /**
+     * Consuma un invio del form contatti per il client
+     *
+     * @param clientIp Indirizzo del client
+     * @param email Email inserita nel form (può essere null)
+     * @return 0 se l'invio è consentito, altrimenti i secondi da attendere (per Retry-After)
+     */
+    public long tryAcquireContact(String clientIp, String email) {
+        long waitNanos = ipLimiter.tryAcquire(clientIp);
+        if (waitNanos == 0 && email != null && !email.isBlank()) {
+            waitNanos = emailLimiter.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+        }
+        if (waitNanos == 0) {
+            return 0;
+        }
+        rejected.increment();
+        return retryAfterSeconds(waitNanos);
+    }
+
+    /**
+     * Secondi interi per Retry-After, arrotondati per eccesso: riprovare dopo quel tempo trova il token
+     */
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Richieste respinte dall'avvio dell'applicazione
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        int evicted = ipLimiter.evictIdle() + emailLimiter.evictIdle();
+        if (evicted > 0) {
+            logger.debug("Rate limiter: {} bucket inattivi rimossi, {} attivi", evicted, ipLimiter.size() + emailLimiter.size());
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.hicman.CorporateSite.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Indice di similarità tra gli articoli pubblicati (TF-IDF su titolo, contenuto e fonte)
+ * Per ogni articolo vengono precalcolati i K articoli più simili, così il dettaglio
+ * recupera i correlati con una lettura in memoria.
+ * L'indice è aggiornato in background, in modo incrementale, a ogni aggiornamento dello snapshot.
+ */
+@Service
+public class RelatedPostsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelatedPostsService.class);
+
+    // Vicini precalcolati per articolo
+    private static final int TOP_K = 6;
+
+    // Termini più significativi mantenuti nel vettore di ogni articolo
+    private static final int VECTOR_TERMS = 40;
+
+    // Similarità minima (coseno) perché un articolo sia considerato correlato
+    private static final double MIN_SIMILARITY = 0.05;
+
+    // Peso dei campi, come nella ricerca full-text
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SOURCE_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+
+    @Autowired
+    private PublishedContentStore publishedContentStore;
+
+    // Un solo thread: gli aggiornamenti sono applicati in ordine senza rallentare il salvataggio
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "related-posts-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Stato dell'indice, usato solo dal thread worker
+    private final Map<Long, IndexedPost> documents = new HashMap<>();
+    private final Map<String, Integer> documentFrequency = new HashMap<>();
+    private final Map<String, Map<Long, Double>> postings = new HashMap<>();
+
+    // Vicini precalcolati (letti dalle richieste): id articolo -> correlati per similarità decrescente
+    private final Map<Long, List<Neighbour>> neighbours = new ConcurrentHashMap<>();
+
+    // ==================== LETTURA ====================
+
+    /**
+     * Articoli correlati a quello indicato
+     * Se l'indice non è ancora pronto o i simili sono pochi, completa con gli articoli più recenti
+     *
+     * @param postId ID dell'articolo corrente
+     * @param limit Numero massimo di articoli
+     * @return Articoli pubblicati correlati (escluso quello corrente)
+     */
+    public List<BlogPost> getRelatedPosts(Long postId, int limit) {
+        List<BlogPost> related = new ArrayList<>(limit);
+        Set<Long> relatedIds = new HashSet<>();
+
+        for (Neighbour neighbour : neighbours.getOrDefault(postId, List.of())) {
+            if (related.size() == limit) {
+                break;
+            }
+            publishedContentStore.getPublishedPostById(neighbour.id()).ifPresent(post -> {
+                related.add(post);
+                relatedIds.add(post.getId());
+            });
+        }
+
+        if (related.size() < limit) {
+            for (BlogPost post : publishedContentStore.getLatestPublishedPosts(limit * 2 + 1)) {
+                if (related.size() == limit) {
+                    break;
+                }
+                if (!post.getId().equals(postId) && relatedIds.add(post.getId())) {
+                    related.add(post);
+                }
+            }
+        }
+        return related;
+    }
+
+    // ==================== AGGIORNAMENTO ====================
+
+    @EventListener
+    public void onPublishedContentRefreshed(PublishedContentRefreshedEvent event) {
+        List<BlogPost> posts = event.posts();
+        worker.execute(() -> {
+            try {
+                update(posts);
+            } catch (RuntimeException e) {
+                logger.error("Errore durante l'aggiornamento degli articoli correlati", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Allinea l'indice allo snapshot
+     * Solo gli articoli nuovi o modificati vengono rianalizzati; i vicini sono ricalcolati per loro
+     * e per gli articoli che potrebbero averli tra i propri correlati.
+     * Se cambia più della metà dell'archivio (avvio, ripristino backup) l'indice viene ricostruito da zero.
+     */
+    private void update(List<BlogPost> posts) {
+        long start = System.currentTimeMillis();
+
+        Set<Long> publishedIds = new HashSet<>();
+        List<BlogPost> changed = new ArrayList<>();
+        Set<Long> stale = new HashSet<>();
+        int removed = 0;
+        for (BlogPost post : posts) {
+            publishedIds.add(post.getId());
+            IndexedPost existing = documents.get(post.getId());
+            if (existing == null || !Objects.equals(existing.version(), post.getUpdatedAt())) {
+                changed.add(post);
+                if (existing != null) {
+                    stale.add(post.getId());
+                }
+            }
+        }
+        for (Long id : documents.keySet()) {
+            if (!publishedIds.contains(id)) {
+                stale.add(id);
+                removed++;
+            }
+        }
+
+        if (changed.isEmpty() && stale.isEmpty()) {
+            return;
+        }
+
+        if (documents.isEmpty() || changed.size() + stale.size() > documents.size() / 2) {
+            rebuildAll(posts);
+            logger.info("Indice articoli correlati ricostruito: {} articoli in {} ms",
+                    documents.size(), System.currentTimeMillis() - start);
+            return;
+        }
+
+        for (Long id : stale) {
+            removeDocument(id);
+        }
+        for (BlogPost post : changed) {
+            addDocument(post);
+        }
+
+        Set<Long> changedIds = new HashSet<>();
+        for (BlogPost post : changed) {
+            changedIds.add(post.getId());
+            vectorize(post.getId());
+        }
+
+        // Articoli i cui vicini vanno ricalcolati
+        Set<Long> affected = new HashSet<>();
+        for (Map.Entry<Long, List<Neighbour>> entry : neighbours.entrySet()) {
+            for (Neighbour neighbour : entry.getValue()) {
+                if (stale.contains(neighbour.id())) {
+                    affected.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+
+        for (Long id : changedIds) {
+            Map<Long, Double> scores = similarities(id);
+            // Un articolo modificato può entrare tra i correlati di quelli a cui somiglia
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                if (entry.getValue() > lowestScore(entry.getKey())) {
+                    affected.add(entry.getKey());
+                }
+            }
+            neighbours.put(id, topNeighbours(scores));
+        }
+
+        neighbours.keySet().retainAll(documents.keySet());
+        affected.removeAll(changedIds);
+        affected.retainAll(documents.keySet());
+        for (Long id : affected) {
+            neighbours.put(id, topNeighbours(similarities(id)));
+        }
+
+        logger.info("Indice articoli correlati aggiornato: {} articoli modificati, {} rimossi, {} ricalcolati in {} ms",
+                changed.size(), removed, affected.size(), System.currentTimeMillis() - start);
+    }
+
+    private void rebuildAll(List<BlogPost> posts) {
+        documents.clear();
+        documentFrequency.clear();
+        postings.clear();
+
+        for (BlogPost post : posts) {
+            addDocument(post);
+        }
+        for (Long id : List.copyOf(documents.keySet())) {
+            vectorize(id);
+        }
+
+        Map<Long, List<Neighbour>> computed = new HashMap<>();
+        for (Long id : documents.keySet()) {
+            computed.put(id, topNeighbours(similarities(id)));
+        }
+
+        // Sostituzione chiave per chiave: le richieste vedono sempre i vicini vecchi o quelli nuovi
+        neighbours.keySet().retainAll(computed.keySet());
+        neighbours.putAll(computed);
+    }
+
+    // ==================== INDICIZZAZIONE ====================
+
+    /**
+     * Registra le frequenze dei termini dell'articolo (il vettore è calcolato da vectorize)
+     */
+    private void addDocument(BlogPost post) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, post.getTitle(), TITLE_WEIGHT);
+        addTerms(frequencies, post.getSourceName(), SOURCE_WEIGHT);
+        addTerms(frequencies, TextAnalyzer.toPlainText(post.getContent()), CONTENT_WEIGHT);
+
+        for (String term : frequencies.keySet()) {
+            documentFrequency.merge(term, 1, Integer::sum);
+        }
+        documents.put(post.getId(), new IndexedPost(post.getUpdatedAt(), frequencies, Map.of()));
+    }
+
+    private void removeDocument(Long id) {
+        IndexedPost indexed = documents.remove(id);
+        if (indexed == null) {
+            return;
+        }
+        for (String term : indexed.frequencies().keySet()) {
+            documentFrequency.computeIfPresent(term, (k, count) -> count > 1 ? count - 1 : null);
+        }
+        removePostings(id, indexed.vector());
+    }
+
+    /**
+     * Calcola il vettore TF-IDF normalizzato dell'articolo, limitato ai termini più significativi
+     * I vettori degli altri articoli mantengono l'IDF del momento in cui sono stati calcolati
+     * fino alla successiva ricostruzione completa.
+     */
+    private void vectorize(Long id) {
+        IndexedPost indexed = documents.get(id);
+        removePostings(id, indexed.vector());
+
+        int documentCount = documents.size();
+        List<Map.Entry<String, Double>> weights = new ArrayList<>(indexed.frequencies().size());
+        for (Map.Entry<String, Integer> entry : indexed.frequencies().entrySet()) {
+            int df = documentFrequency.getOrDefault(entry.getKey(), 1);
+            double weight = (1 + Math.log(entry.getValue())) * Math.log(1 + (double) documentCount / df);
+            weights.add(Map.entry(entry.getKey(), weight));
+        }
+        weights.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+
+        List<Map.Entry<String, Double>> top = weights.subList(0, Math.min(VECTOR_TERMS, weights.size()));
+        double norm = Math.sqrt(top.stream().mapToDouble(e -> e.getValue() * e.getValue()).sum());
+
+        Map<String, Double> vector = new HashMap<>();
+        if (norm > 0) {
+            for (Map.Entry<String, Double> entry : top) {
+                double weight = entry.getValue() / norm;
+                vector.put(entry.getKey(), weight);
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(id, weight);
+            }
+        }
+        documents.put(id, indexed.withVector(vector));
+    }
+
+    private void removePostings(Long id, Map<String, Double> vector) {
+        for (String term : vector.keySet()) {
+            Map<Long, Double> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    // ==================== SIMILARITÀ ====================
+
+    /**
+     * Similarità coseno con tutti gli articoli che condividono almeno un termine del vettore
+     */
+    private Map<Long, Double> similarities(Long id) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Double> entry : documents.get(id).vector().entrySet()) {
+            for (Map.Entry<Long, Double> posting : postings.get(entry.getKey()).entrySet()) {
+                if (!posting.getKey().equals(id)) {
+                    scores.merge(posting.getKey(), entry.getValue() * posting.getValue(), Double::sum);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private List<Neighbour> topNeighbours(Map<Long, Double> scores) {
+        return scores.entrySet().stream()
+                .filter(e -> e.getValue() >= MIN_SIMILARITY)
+                .map(e -> new Neighbour(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingDouble(Neighbour::score).reversed()
+                        .thenComparing(Neighbour::id, Comparator.reverseOrder()))
+                .limit(TOP_K)
+                .toList();
+    }
+
+    /**
+     * Punteggio minimo per entrare tra i vicini di un articolo
+     */
+    private double lowestScore(Long id) {
+        List<Neighbour> current = neighbours.get(id);
+        if (current == null || current.size() < TOP_K) {
+            return MIN_SIMILARITY;
+        }
+        return current.get(current.size() - 1).score();
+    }
+
+    // ==================== TIPI ====================
+
+    private record IndexedPost(LocalDateTime version, Map<String, Integer> frequencies, Map<String, Double> vector) {
+
+        IndexedPost withVector(Map<String, Double> newVector) {
+            return new IndexedPost(version, frequencies, newVector);
+        }
+    }
+
+    private record Neighbour(Long id, double score) {
+    }
+}
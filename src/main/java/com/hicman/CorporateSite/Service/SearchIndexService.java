@@ -0,0 +1,278 @@
+package com.hicman.CorporateSite.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+
+/**
+ * Indice invertito in memoria per la ricerca full-text negli articoli pubblicati
+ * Tokenizzazione italiano/inglese, ranking BM25 ed estratti con evidenziazione.
+ * L'indice viene aggiornato in modo incrementale a ogni aggiornamento dello snapshot dei contenuti.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    // Parametri BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Peso dei campi (un termine nel titolo vale come 3 nel contenuto)
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SOURCE_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+
+    private static final int SNIPPET_LENGTH = 180;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Documenti indicizzati e posting list: termine -> (id articolo -> frequenza pesata)
+    private final Map<Long, IndexedPost> documents = new HashMap<>();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private long totalLength = 0;
+
+    // ==================== AGGIORNAMENTO ====================
+
+    /**
+     * Allinea l'indice allo snapshot: reindicizza solo gli articoli nuovi o modificati
+     * e rimuove quelli non più pubblicati
+     */
+    @EventListener
+    public void onPublishedContentRefreshed(PublishedContentRefreshedEvent event) {
+        int updated = 0;
+        int removed = 0;
+
+        lock.writeLock().lock();
+        try {
+            Set<Long> publishedIds = new HashSet<>();
+            for (BlogPost post : event.posts()) {
+                publishedIds.add(post.getId());
+                IndexedPost existing = documents.get(post.getId());
+                if (existing == null || !Objects.equals(existing.version(), post.getUpdatedAt())) {
+                    if (existing != null) {
+                        removeDocument(existing);
+                    }
+                    addDocument(post);
+                    updated++;
+                } else {
+                    // Stesso contenuto, aggiorna solo il riferimento all'istanza più recente
+                    documents.put(post.getId(), existing.withPost(post));
+                }
+            }
+
+            for (IndexedPost indexed : new ArrayList<>(documents.values())) {
+                if (!publishedIds.contains(indexed.post().getId())) {
+                    removeDocument(indexed);
+                    removed++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (updated > 0 || removed > 0) {
+            logger.info("Indice di ricerca aggiornato: {} articoli indicizzati, {} rimossi", updated, removed);
+        }
+    }
+
+    // ==================== RICERCA ====================
+
+    /**
+     * Ricerca negli articoli pubblicati con ranking BM25
+     *
+     * @param query Testo da cercare
+     * @param pageable Paginazione dei risultati
+     * @return Risultati ordinati per rilevanza, con estratto evidenziato
+     */
+    public Page<SearchResult> search(String query, Pageable pageable) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.analyze(query));
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        List<ScoredPost> scored = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    int tf = entry.getValue();
+                    int length = documents.get(entry.getKey()).length();
+                    double norm = tf + K1 * (1 - B + B * length / averageLength);
+                    scores.merge(entry.getKey(), idf * tf * (K1 + 1) / norm, Double::sum);
+                }
+            }
+
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                scored.add(new ScoredPost(documents.get(entry.getKey()), entry.getValue()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        scored.sort(Comparator.comparingDouble(ScoredPost::score).reversed()
+                .thenComparing(s -> s.indexed().post().getPublishedDate(),
+                        Comparator.nullsLast(Comparator.reverseOrder())));
+
+        int from = (int) Math.min(pageable.getOffset(), scored.size());
+        int to = Math.min(from + pageable.getPageSize(), scored.size());
+
+        List<SearchResult> results = new ArrayList<>(to - from);
+        for (ScoredPost s : scored.subList(from, to)) {
+            results.add(new SearchResult(s.indexed().post(), s.score(), buildSnippet(s.indexed().plainText(), terms)));
+        }
+        return new PageImpl<>(results, pageable, scored.size());
+    }
+
+    /**
+     * Numero di articoli presenti nell'indice
+     */
+    public int getIndexedCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== INDICIZZAZIONE ====================
+
+    private void addDocument(BlogPost post) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        String plainText = TextAnalyzer.toPlainText(post.getContent());
+
+        addTerms(frequencies, post.getTitle(), TITLE_WEIGHT);
+        addTerms(frequencies, post.getSourceName(), SOURCE_WEIGHT);
+        addTerms(frequencies, plainText, CONTENT_WEIGHT);
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(post.getId(), entry.getValue());
+            length += entry.getValue();
+        }
+
+        documents.put(post.getId(), new IndexedPost(post, post.getUpdatedAt(), plainText, frequencies.keySet(), length));
+        totalLength += length;
+    }
+
+    private void removeDocument(IndexedPost indexed) {
+        Long id = indexed.post().getId();
+        for (String term : indexed.terms()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        documents.remove(id);
+        totalLength -= indexed.length();
+    }
+
+    private void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    // ==================== ESTRATTI ====================
+
+    /**
+     * Estratto di testo attorno alla prima occorrenza, con i termini trovati racchiusi in &lt;mark&gt;
+     * Il testo è già escapato: va mostrato con th:utext
+     */
+    private String buildSnippet(String plainText, Set<String> terms) {
+        int firstMatch = -1;
+        Matcher matcher = TextAnalyzer.words(plainText);
+        while (matcher.find()) {
+            if (terms.contains(TextAnalyzer.normalize(matcher.group()))) {
+                firstMatch = matcher.start();
+                break;
+            }
+        }
+
+        int start = firstMatch < 0 ? 0 : Math.max(0, firstMatch - SNIPPET_LENGTH / 3);
+        if (start > 0) {
+            int space = plainText.indexOf(' ', start);
+            start = space >= 0 && space < firstMatch ? space + 1 : start;
+        }
+        int end = Math.min(plainText.length(), start + SNIPPET_LENGTH);
+        if (end < plainText.length()) {
+            int space = plainText.lastIndexOf(' ', end);
+            end = space > start ? space : end;
+        }
+
+        String window = plainText.substring(start, end);
+        StringBuilder snippet = new StringBuilder();
+        if (start > 0) {
+            snippet.append("&hellip;");
+        }
+
+        int last = 0;
+        matcher = TextAnalyzer.words(window);
+        while (matcher.find()) {
+            if (terms.contains(TextAnalyzer.normalize(matcher.group()))) {
+                snippet.append(HtmlUtils.htmlEscape(window.substring(last, matcher.start())))
+                       .append("<mark>")
+                       .append(HtmlUtils.htmlEscape(matcher.group()))
+                       .append("</mark>");
+                last = matcher.end();
+            }
+        }
+        snippet.append(HtmlUtils.htmlEscape(window.substring(last)));
+
+        if (end < plainText.length()) {
+            snippet.append("&hellip;");
+        }
+        return snippet.toString();
+    }
+
+    // ==================== TIPI ====================
+
+    /**
+     * Risultato della ricerca: articolo, punteggio BM25 ed estratto evidenziato (HTML)
+     */
+    public record SearchResult(BlogPost post, double score, String snippet) {
+    }
+
+    private record IndexedPost(BlogPost post, LocalDateTime version, String plainText, Set<String> terms, int length) {
+
+        IndexedPost withPost(BlogPost newPost) {
+            return new IndexedPost(newPost, version, plainText, terms, length);
+        }
+    }
+
+    private record ScoredPost(IndexedPost indexed, double score) {
+    }
+}
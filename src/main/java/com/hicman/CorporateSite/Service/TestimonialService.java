@@ -1,29 +1,50 @@
 package com.hicman.CorporateSite.Service;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.hicman.CorporateSite.Model.Testimonial;
+import com.hicman.CorporateSite.Repository.StoredImage;
 import com.hicman.CorporateSite.Repository.TestimonialRepository;
+import com.hicman.CorporateSite.Service.ContentChangedEvent.ContentType;
+import com.hicman.CorporateSite.Service.ContentCounterService.Counter;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
  * Service per la gestione delle testimonianze (Dicono di Noi)
  */
 @Service
+@Timed("hicman.service")
 @Transactional
 public class TestimonialService {
 
     @Autowired
     private TestimonialRepository testimonialRepository;
 
+    @Autowired
+    private ContentCounterService contentCounterService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ==================== METODI PUBBLICI ====================
 
     /**
@@ -89,11 +110,54 @@ public class TestimonialService {
         
         // Se non ha displayOrder, impostalo all'ultimo
         if (testimonial.getDisplayOrder() == 0) {
-            long maxOrder = testimonialRepository.count();
+            long maxOrder = contentCounterService.get(Counter.TESTIMONIALS);
             testimonial.setDisplayOrder((int) maxOrder + 1);
         }
         
-        return testimonialRepository.save(testimonial);
+        // Stato precedente per aggiornare i contatori
+        Optional<Boolean> wasPublished = testimonial.getId() != null
+                ? testimonialRepository.findPublishedById(testimonial.getId())
+                : Optional.empty();
+        
+        Testimonial savedTestimonial = testimonialRepository.save(testimonial);
+        
+        if (wasPublished.isEmpty()) {
+            contentCounterService.increment(Counter.TESTIMONIALS, 1);
+        }
+        contentCounterService.increment(Counter.PUBLISHED_TESTIMONIALS,
+                publishedDelta(wasPublished.orElse(false), savedTestimonial.isPublished()));
+        
+        requestLogoDerivatives(savedTestimonial);
+        publishChange();
+        return savedTestimonial;
+    }
+
+    /**
+     * Salva una testimonianza dal form admin con eventuale upload o rimozione del logo
+     * Il logo attuale viene letto dal database (il form non lo contiene): vedi BlogService.savePostWithImage
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public Testimonial saveTestimonialWithLogo(Testimonial testimonial, MultipartFile logoFile, boolean removeLogo)
+            throws IOException {
+        Optional<StoredImage> current = testimonial.getId() != null
+                ? testimonialRepository.findLogoById(testimonial.getId())
+                : Optional.empty();
+        String currentUrl = current.map(StoredImage::getUrl).orElse(null);
+        boolean upload = logoFile != null && !logoFile.isEmpty();
+        
+        if (upload) {
+            setLogo(testimonial, fileStorageService.storeFile(logoFile, "testimonials"), null);
+        } else if (removeLogo) {
+            setLogo(testimonial, null, null);
+        } else {
+            setLogo(testimonial, currentUrl, current.orElse(null));
+        }
+        
+        if (currentUrl != null && (upload || removeLogo)) {
+            fileStorageService.deleteFile(currentUrl);
+        }
+        
+        return saveTestimonial(testimonial);
     }
 
     /**
@@ -104,7 +168,14 @@ public class TestimonialService {
         if (testimonial.getPublishedDate() == null) {
             testimonial.setPublishedDate(LocalDateTime.now());
         }
-        return testimonialRepository.save(testimonial);
+        Testimonial savedTestimonial = testimonialRepository.save(testimonial);
+        contentCounterService.increment(Counter.TESTIMONIALS, 1);
+        if (savedTestimonial.isPublished()) {
+            contentCounterService.increment(Counter.PUBLISHED_TESTIMONIALS, 1);
+        }
+        requestLogoDerivatives(savedTestimonial);
+        publishChange();
+        return savedTestimonial;
     }
 
     /**
@@ -118,27 +189,43 @@ public class TestimonialService {
         }
         
         Testimonial testimonial = existing.get();
+        boolean wasPublished = testimonial.isPublished();
         
         // Aggiorna i campi
         testimonial.setQuote(updatedTestimonial.getQuote());
         testimonial.setSourceName(updatedTestimonial.getSourceName());
         testimonial.setSourceRole(updatedTestimonial.getSourceRole());
+        if (!Objects.equals(testimonial.getLogoUrl(), updatedTestimonial.getLogoUrl())) {
+            // Logo cambiato: i metadati verranno ricalcolati dalla pipeline delle varianti
+            testimonial.setLogoWidth(null);
+            testimonial.setLogoHeight(null);
+            testimonial.setLogoLqip(null);
+        }
         testimonial.setLogoUrl(updatedTestimonial.getLogoUrl());
         testimonial.setExternalLink(updatedTestimonial.getExternalLink());
         testimonial.setPublishedDate(updatedTestimonial.getPublishedDate());
         testimonial.setPublished(updatedTestimonial.isPublished());
         
-        return testimonialRepository.save(testimonial);
+        Testimonial savedTestimonial = testimonialRepository.save(testimonial);
+        contentCounterService.increment(Counter.PUBLISHED_TESTIMONIALS,
+                publishedDelta(wasPublished, savedTestimonial.isPublished()));
+        requestLogoDerivatives(savedTestimonial);
+        publishChange();
+        return savedTestimonial;
     }
 
     /**
      * Elimina una testimonianza
      */
     public void deleteTestimonial(Long id) {
-        if (!testimonialRepository.existsById(id)) {
+        Optional<Boolean> wasPublished = testimonialRepository.findPublishedById(id);
+        if (wasPublished.isEmpty()) {
             throw new IllegalArgumentException("Testimonianza non trovata con ID: " + id);
         }
+        deleteLogo(id);
         testimonialRepository.deleteById(id);
+        decrementCounters(wasPublished.get());
+        publishChange();
     }
 
     /**
@@ -148,11 +235,17 @@ public class TestimonialService {
     public int deleteTestimonials(Long[] testimonialIds) {
         int count = 0;
         for (Long id : testimonialIds) {
-            if (testimonialRepository.existsById(id)) {
+            Optional<Boolean> wasPublished = testimonialRepository.findPublishedById(id);
+            if (wasPublished.isPresent()) {
+                deleteLogo(id);
                 testimonialRepository.deleteById(id);
+                decrementCounters(wasPublished.get());
                 count++;
             }
         }
+        if (count > 0) {
+            publishChange();
+        }
         return count;
     }
 
@@ -167,6 +260,7 @@ public class TestimonialService {
         }
         
         Testimonial testimonial = testimonialOpt.get();
+        boolean wasPublished = testimonial.isPublished();
         testimonial.setPublished(true);
         
         // Imposta la data di pubblicazione se non presente
@@ -174,7 +268,10 @@ public class TestimonialService {
             testimonial.setPublishedDate(LocalDateTime.now());
         }
         
-        return testimonialRepository.save(testimonial);
+        Testimonial savedTestimonial = testimonialRepository.save(testimonial);
+        contentCounterService.increment(Counter.PUBLISHED_TESTIMONIALS, publishedDelta(wasPublished, true));
+        publishChange();
+        return savedTestimonial;
     }
 
     /**
@@ -188,9 +285,22 @@ public class TestimonialService {
         }
         
         Testimonial testimonial = testimonialOpt.get();
+        boolean wasPublished = testimonial.isPublished();
         testimonial.setPublished(false);
         
-        return testimonialRepository.save(testimonial);
+        Testimonial savedTestimonial = testimonialRepository.save(testimonial);
+        contentCounterService.increment(Counter.PUBLISHED_TESTIMONIALS, publishedDelta(wasPublished, false));
+        publishChange();
+        return savedTestimonial;
+    }
+
+    /**
+     * Pubblica o depubblica una testimonianza
+     */
+    public Testimonial togglePublish(Long id) {
+        Testimonial testimonial = testimonialRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Testimonianza non trovata con ID: " + id));
+        return testimonial.isPublished() ? unpublishTestimonial(id) : publishTestimonial(id);
     }
 
     // ==================== RIORDINO ====================
@@ -221,6 +331,7 @@ public class TestimonialService {
             
             testimonialRepository.save(swapWith);
             testimonialRepository.save(testimonial);
+            publishChange();
         }
     }
 
@@ -250,29 +361,79 @@ public class TestimonialService {
             
             testimonialRepository.save(swapWith);
             testimonialRepository.save(testimonial);
+            publishChange();
         }
     }
 
     // ==================== STATISTICHE ====================
+    // I totali arrivano dai contatori incrementali (vedi ContentCounterService)
 
     /**
      * Conta tutte le testimonianze (pubblicate e bozze)
      */
     public long countAllTestimonials() {
-        return testimonialRepository.count();
+        return contentCounterService.get(Counter.TESTIMONIALS);
     }
 
     /**
      * Conta solo le testimonianze pubblicate
      */
     public long countPublishedTestimonials() {
-        return testimonialRepository.countByPublishedTrue();
+        return contentCounterService.get(Counter.PUBLISHED_TESTIMONIALS);
     }
 
     /**
      * Conta solo le bozze
      */
     public long countDraftTestimonials() {
-        return testimonialRepository.countByPublishedFalse();
+        return countAllTestimonials() - countPublishedTestimonials();
+    }
+
+    // ==================== UTILITY METHODS ====================
+
+    private long publishedDelta(boolean wasPublished, boolean isPublished) {
+        return (isPublished ? 1 : 0) - (wasPublished ? 1 : 0);
+    }
+
+    private void decrementCounters(boolean wasPublished) {
+        contentCounterService.increment(Counter.TESTIMONIALS, -1);
+        if (wasPublished) {
+            contentCounterService.increment(Counter.PUBLISHED_TESTIMONIALS, -1);
+        }
+    }
+
+    /**
+     * Richiede le varianti del logo se i metadati non sono ancora stati calcolati
+     */
+    /**
+     * Imposta logo e metadati (null: ricalcolati dalla pipeline delle varianti)
+     */
+    private void setLogo(Testimonial testimonial, String logoUrl, StoredImage metadata) {
+        testimonial.setLogoUrl(logoUrl);
+        testimonial.setLogoWidth(metadata != null ? metadata.getWidth() : null);
+        testimonial.setLogoHeight(metadata != null ? metadata.getHeight() : null);
+        testimonial.setLogoLqip(metadata != null ? metadata.getLqip() : null);
+    }
+
+    /**
+     * Rilascia il logo salvato di una testimonianza che sta per essere eliminata
+     */
+    private void deleteLogo(Long id) {
+        testimonialRepository.findLogoById(id)
+                .map(StoredImage::getUrl)
+                .ifPresent(fileStorageService::deleteFile);
+    }
+
+    private void requestLogoDerivatives(Testimonial testimonial) {
+        if (testimonial.hasLogo() && testimonial.getLogoWidth() == null) {
+            imageDerivativeService.requestDerivatives(testimonial.getLogoUrl());
+        }
+    }
+
+    /**
+     * Notifica la modifica delle testimonianze (gestita dai listener dopo il commit)
+     */
+    private void publishChange() {
+        eventPublisher.publishEvent(new ContentChangedEvent(ContentType.TESTIMONIAL));
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.hicman.CorporateSite.Service;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Analisi del testo degli articoli, condivisa da ricerca full-text e articoli correlati
+ * Tokenizzazione italiano/inglese: minuscolo, senza accenti, senza stopword, con stemming leggero.
+ */
+final class TextAnalyzer {
+
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+        // Italiano (incluse le forme elise: dell', nell', l', ...)
+        "il", "lo", "la", "i", "gli", "le", "l", "un", "uno", "una", "di", "del", "dello", "della",
+        "dei", "degli", "delle", "dell", "a", "al", "allo", "alla", "ai", "agli", "alle", "all",
+        "da", "dal", "dallo", "dalla", "dai", "dagli", "dalle", "dall", "in", "nel", "nello", "nella",
+        "nei", "negli", "nelle", "nell", "su", "sul", "sullo", "sulla", "sui", "sugli", "sulle", "sull",
+        "con", "per", "tra", "fra", "e", "ed", "o", "che", "non", "si", "ci", "ne", "come", "anche",
+        "piu", "ma", "se", "sono", "questo", "questa", "quello", "quella", "c", "d", "s",
+        // Inglese
+        "the", "an", "and", "or", "of", "to", "on", "at", "by", "for", "with", "from", "is", "are",
+        "was", "were", "be", "been", "it", "its", "this", "that", "these", "those", "as", "not", "but"
+    );
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Tokenizza il testo restituendo i termini normalizzati
+     */
+    static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            String term = normalize(matcher.group());
+            if (term != null) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Matcher sulle singole parole del testo (per ricostruire le posizioni dei termini)
+     */
+    static Matcher words(String text) {
+        return WORD.matcher(text);
+    }
+
+    /**
+     * Normalizza una singola parola (null se è una stopword)
+     */
+    static String normalize(String word) {
+        String term = DIACRITICS.matcher(Normalizer.normalize(word.toLowerCase(), Normalizer.Form.NFD)).replaceAll("");
+        if (STOPWORDS.contains(term)) {
+            return null;
+        }
+        return stem(term);
+    }
+
+    /**
+     * Converte il contenuto HTML (mostrato con th:utext) in testo semplice
+     */
+    static String toPlainText(String html) {
+        if (html == null) {
+            return "";
+        }
+        String text = HTML_TAG.matcher(html).replaceAll(" ");
+        text = HtmlUtils.htmlUnescape(text);
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+
+    /**
+     * Stemming leggero comune a italiano e inglese:
+     * plurale inglese in -s e vocale finale italiana (finanziaria/finanziarie/finanziario)
+     */
+    private static String stem(String term) {
+        if (term.length() > 4 && term.endsWith("s") && !term.endsWith("ss")) {
+            term = term.substring(0, term.length() - 1);
+        }
+        if (term.length() > 4 && "aeio".indexOf(term.charAt(term.length() - 1)) >= 0) {
+            term = term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+}
@@ -0,0 +1,114 @@
+package com.hicman.CorporateSite.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitatore a token bucket per chiave (es. IP del client)
+ * Ogni bucket contiene al massimo capacity token e si ricarica in modo continuo in refillPeriod;
+ * il prelievo è lock-free (compare-and-set sullo stato immutabile del bucket).
+ * La memoria è limitata a maxKeys bucket: oltre il limite le nuove chiavi condividono un bucket comune,
+ * così un attacco da molti indirizzi diversi resta comunque limitato.
+ */
+final class TokenBucketRateLimiter {
+
+    private static final String OVERFLOW_KEY = "*";
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    TokenBucketRateLimiter(int capacity, Duration refillPeriod, int maxKeys) {
+        this(capacity, refillPeriod, maxKeys, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock Sorgente del tempo in nanosecondi (System.nanoTime, sostituibile nei test)
+     */
+    TokenBucketRateLimiter(int capacity, Duration refillPeriod, int maxKeys, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) capacity / refillPeriod.toNanos();
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Preleva un token per la chiave
+     *
+     * @return 0 se consentito, altrimenti i nanosecondi di attesa prima del prossimo token
+     */
+    long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        return bucketFor(key, now).tryAcquire(now);
+    }
+
+    /**
+     * Rimuove i bucket tornati pieni: equivalgono a un bucket nuovo, quindi non si perde nessuno stato
+     *
+     * @return Bucket rimossi
+     */
+    int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        return before - buckets.size();
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucketFor(String key, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            evictIdle();
+            if (buckets.size() >= maxKeys) {
+                return buckets.computeIfAbsent(OVERFLOW_KEY, k -> new TokenBucket(now));
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+    }
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    private final class TokenBucket {
+
+        private final AtomicReference<State> state;
+
+        TokenBucket(long now) {
+            this.state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        long tryAcquire(long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = refill(current, now);
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / tokensPerNano);
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return refill(state.get(), now) >= capacity;
+        }
+
+        private double refill(State current, long now) {
+            long elapsed = Math.max(0, now - current.refilledAt());
+            return Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+        }
+    }
+}
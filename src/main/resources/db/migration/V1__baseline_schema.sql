@@ -0,0 +1,77 @@
+-- Schema di partenza: le tabelle finora create da Hibernate (ddl-auto=update) e dai service via JDBC.
+-- Idempotente: sui database esistenti (baseline-version 0, vedi schema.properties) crea solo ciò che manca,
+-- comprese le colonne aggiunte dopo la prima versione (dimensioni e anteprime di immagini e loghi).
+
+-- ==================== RASSEGNA STAMPA (BlogPost) ====================
+
+CREATE TABLE IF NOT EXISTS blog_posts (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title           VARCHAR(200) NOT NULL,
+    content         CHARACTER LARGE OBJECT,
+    image_url       VARCHAR(500),
+    image_width     INTEGER,
+    image_height    INTEGER,
+    image_lqip      VARCHAR(2000),
+    external_link   VARCHAR(500),
+    source_name     VARCHAR(100),
+    published_date  TIMESTAMP(6),
+    is_published    BOOLEAN NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6)
+);
+
+ALTER TABLE blog_posts ADD COLUMN IF NOT EXISTS image_width INTEGER;
+ALTER TABLE blog_posts ADD COLUMN IF NOT EXISTS image_height INTEGER;
+ALTER TABLE blog_posts ADD COLUMN IF NOT EXISTS image_lqip VARCHAR(2000);
+
+-- ==================== TESTIMONIANZE (Testimonial) ====================
+
+CREATE TABLE IF NOT EXISTS testimonials (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    quote           CHARACTER LARGE OBJECT NOT NULL,
+    source_name     VARCHAR(200) NOT NULL,
+    source_role     VARCHAR(200),
+    logo_url        VARCHAR(500),
+    logo_width      INTEGER,
+    logo_height     INTEGER,
+    logo_lqip       VARCHAR(2000),
+    external_link   VARCHAR(500),
+    published_date  TIMESTAMP(6) NOT NULL,
+    published       BOOLEAN NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6) NOT NULL,
+    display_order   INTEGER NOT NULL
+);
+
+ALTER TABLE testimonials ADD COLUMN IF NOT EXISTS logo_width INTEGER;
+ALTER TABLE testimonials ADD COLUMN IF NOT EXISTS logo_height INTEGER;
+ALTER TABLE testimonials ADD COLUMN IF NOT EXISTS logo_lqip VARCHAR(2000);
+
+-- ==================== TABELLE DI SERVIZIO ====================
+
+-- Contatori dei contenuti (ContentCounterService)
+CREATE TABLE IF NOT EXISTS content_counters (
+    name            VARCHAR(50) PRIMARY KEY,
+    counter_value   BIGINT NOT NULL
+);
+
+-- Riferimenti ai file caricati (FileReferenceService)
+CREATE TABLE IF NOT EXISTS file_references (
+    path            VARCHAR(500) PRIMARY KEY,
+    ref_count       INT NOT NULL
+);
+
+-- Outbox dei messaggi del form contatti (ContactOutboxService)
+CREATE TABLE IF NOT EXISTS contact_outbox (
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+    subject         VARCHAR(300) NOT NULL,
+    body            VARCHAR(10000) NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    attempts        INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    created_at      TIMESTAMP NOT NULL,
+    sent_at         TIMESTAMP,
+    last_error      VARCHAR(1000)
+);
+
+CREATE INDEX IF NOT EXISTS idx_contact_outbox_due ON contact_outbox (status, next_attempt_at);
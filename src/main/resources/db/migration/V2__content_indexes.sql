@@ -0,0 +1,31 @@
+-- Indici per le query di BlogPostRepository e TestimonialRepository
+-- Con ordinamento nell'indice H2 legge le righe già ordinate e si ferma al LIMIT della pagina.
+
+-- ==================== RASSEGNA STAMPA ====================
+
+-- Pagine pubbliche: WHERE is_published = TRUE ORDER BY published_date DESC (lista, paginazione, ultimi 10),
+-- countByPublishedTrue / countByPublishedFalse
+CREATE INDEX IF NOT EXISTS idx_blog_posts_published_date ON blog_posts (is_published, published_date DESC);
+
+-- Admin con filtro sullo stato: paginazione keyset su (created_at, id) e bozze per data di creazione
+CREATE INDEX IF NOT EXISTS idx_blog_posts_published_created ON blog_posts (is_published, created_at DESC, id DESC);
+
+-- Admin senza filtro: keyset su (created_at, id), ultimi creati, countByCreatedAtAfter
+CREATE INDEX IF NOT EXISTS idx_blog_posts_created ON blog_posts (created_at DESC, id DESC);
+
+-- updateImageMetadata (WHERE image_url = ?) dopo la generazione delle varianti
+CREATE INDEX IF NOT EXISTS idx_blog_posts_image_url ON blog_posts (image_url);
+
+-- ==================== TESTIMONIANZE ====================
+
+-- Pagina pubblica: WHERE published = TRUE ORDER BY published_date DESC, conteggi per stato
+CREATE INDEX IF NOT EXISTS idx_testimonials_published_date ON testimonials (published, published_date DESC);
+
+-- Admin: elenco completo per data di pubblicazione
+CREATE INDEX IF NOT EXISTS idx_testimonials_date ON testimonials (published_date DESC);
+
+-- Spostamento su/giù nell'ordine di visualizzazione (display_order < ? / > ?)
+CREATE INDEX IF NOT EXISTS idx_testimonials_display_order ON testimonials (display_order);
+
+-- updateLogoMetadata (WHERE logo_url = ?)
+CREATE INDEX IF NOT EXISTS idx_testimonials_logo_url ON testimonials (logo_url);
@@ -0,0 +1,54 @@
+package com.hicman.CorporateSite.Config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Header di variante della cache HTML: uguali su MISS e HIT, con la lingua del cookie "lang"
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PageCacheFilterTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void missAndHitDeclareSameVariantHeaders() {
+		ResponseEntity<String> miss = get("/chi-siamo", "en");
+		ResponseEntity<String> hit = get("/chi-siamo", "en");
+
+		assertThat(miss.getHeaders().getFirst("X-Page-Cache")).isEqualTo("MISS");
+		assertThat(hit.getHeaders().getFirst("X-Page-Cache")).isEqualTo("HIT");
+		for (ResponseEntity<String> response : List.of(miss, hit)) {
+			assertThat(response.getHeaders().getVary()).containsExactly("Accept-Encoding", "Cookie");
+			assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_LANGUAGE)).isEqualTo("en");
+		}
+		assertThat(hit.getBody()).isEqualTo(miss.getBody());
+	}
+
+	@Test
+	void eachLanguageIsCachedSeparately() {
+		get("/servizi", "en");
+
+		ResponseEntity<String> italian = get("/servizi", "it");
+
+		assertThat(italian.getHeaders().getFirst("X-Page-Cache")).isEqualTo("MISS");
+		assertThat(italian.getHeaders().getFirst(HttpHeaders.CONTENT_LANGUAGE)).isEqualTo("it");
+	}
+
+	private ResponseEntity<String> get(String path, String lang) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(HttpHeaders.COOKIE, "lang=" + lang);
+		return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+	}
+}
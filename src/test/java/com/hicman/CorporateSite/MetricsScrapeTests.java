@@ -0,0 +1,68 @@
+package com.hicman.CorporateSite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.hicman.CorporateSite.Service.BlogService;
+
+/**
+ * Scrape locale di /actuator/prometheus sulla porta di management, come farebbe Prometheus
+ * (@AutoConfigureObservability: nei test Spring Boot disattiva l'export delle metriche)
+ */
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "management.server.port=0")
+class MetricsScrapeTests {
+
+	@LocalServerPort
+	private int serverPort;
+
+	@LocalManagementPort
+	private int managementPort;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private BlogService blogService;
+
+	@Test
+	void prometheusEndpointExposesApplicationMetrics() {
+		// Una richiesta e una chiamata a un service, per avere i timer valorizzati
+		restTemplate.getForEntity("http://localhost:" + serverPort + "/rassegna-stampa", String.class);
+		blogService.countAllPosts();
+
+		ResponseEntity<String> response = restTemplate.getForEntity(
+				"http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody())
+				.contains("http_server_requests_seconds_bucket")
+				.contains("uri=\"/rassegna-stampa\"")
+				.contains("hicman_service_seconds_count")
+				.contains("hikaricp_connections_active")
+				.contains("hibernate_sessions_open_total")
+				.contains("jvm_gc_memory_allocated_bytes_total")
+				.contains("contact_outbox_queue_depth")
+				.contains("mailgun_circuit_state")
+				.contains("rate_limit_contact_rejected_total")
+				.contains("css_bundle_size_bytes");
+	}
+
+	@Test
+	void actuatorIsNotServedOnApplicationPort() {
+		ResponseEntity<String> response = restTemplate.getForEntity(
+				"http://localhost:" + serverPort + "/actuator/prometheus", String.class);
+
+		assertThat(response.getStatusCode()).isNotEqualTo(HttpStatus.OK);
+	}
+}
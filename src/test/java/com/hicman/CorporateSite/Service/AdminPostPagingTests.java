@@ -0,0 +1,104 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+
+/**
+ * Paginazione keyset della lista admin: post con la stessa data di creazione, pagine avanti e indietro
+ */
+@SpringBootTest
+class AdminPostPagingTests {
+
+	// Ogni test usa una data futura più recente dei precedenti, così i suoi post sono sempre in cima alla lista
+	private static final AtomicInteger BATCH = new AtomicInteger();
+
+	@Autowired
+	private BlogService blogService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Cinque post con lo stesso createdAt, in ordine di inserimento (id crescente)
+	private List<Long> ids;
+
+	@BeforeEach
+	void createPostsWithSameCreationDate() {
+		LocalDateTime createdAt = LocalDateTime.of(2100, 1, 1, 12, 0).plusDays(BATCH.incrementAndGet());
+		ids = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			BlogPost post = new BlogPost();
+			post.setTitle("Articolo paginato " + i);
+			post.setContent("<p>Contenuto dell'articolo di prova.</p>");
+			Long id = blogService.savePost(post).getId();
+			jdbcTemplate.update("UPDATE blog_posts SET created_at = ? WHERE id = ?", createdAt, id);
+			ids.add(id);
+		}
+	}
+
+	@Test
+	void equalCreationDatesAreOrderedByIdWithoutGapsOrDuplicates() {
+		KeysetPage<BlogPost> first = blogService.getPostsForAdmin(null, null, null, 2);
+		KeysetPage<BlogPost> second = blogService.getPostsForAdmin(null, PageCursor.decode(first.nextCursor()), null, 2);
+		KeysetPage<BlogPost> third = blogService.getPostsForAdmin(null, PageCursor.decode(second.nextCursor()), null, 2);
+
+		assertThat(idsOf(first)).containsExactly(ids.get(4), ids.get(3));
+		assertThat(idsOf(second)).containsExactly(ids.get(2), ids.get(1));
+		assertThat(idsOf(third).get(0)).isEqualTo(ids.get(0));
+		assertThat(first.hasPrevious()).isFalse();
+		assertThat(second.hasPrevious()).isTrue();
+	}
+
+	@Test
+	void beforeReturnsPreviousPageInDescendingOrder() {
+		KeysetPage<BlogPost> first = blogService.getPostsForAdmin(null, null, null, 2);
+		KeysetPage<BlogPost> second = blogService.getPostsForAdmin(null, PageCursor.decode(first.nextCursor()), null, 2);
+		KeysetPage<BlogPost> third = blogService.getPostsForAdmin(null, PageCursor.decode(second.nextCursor()), null, 2);
+
+		KeysetPage<BlogPost> back = blogService.getPostsForAdmin(null, null, PageCursor.decode(third.previousCursor()), 2);
+
+		assertThat(idsOf(back)).containsExactly(ids.get(2), ids.get(1));
+		assertThat(back.hasPrevious()).isTrue();
+		assertThat(back.nextCursor()).isEqualTo(second.nextCursor());
+	}
+
+	@Test
+	void beforeReachingStartRewindsToFullFirstPage() {
+		// Pagina che parte dal secondo post: tornando indietro resta un solo post prima del cursore
+		PageCursor afterNewest = PageCursor.decode(blogService.getPostsForAdmin(null, null, null, 1).nextCursor());
+		KeysetPage<BlogPost> shifted = blogService.getPostsForAdmin(null, afterNewest, null, 2);
+		assertThat(idsOf(shifted)).containsExactly(ids.get(3), ids.get(2));
+
+		KeysetPage<BlogPost> back = blogService.getPostsForAdmin(null, null, PageCursor.decode(shifted.previousCursor()), 2);
+
+		assertThat(idsOf(back)).containsExactly(ids.get(4), ids.get(3));
+		assertThat(back.hasPrevious()).isFalse();
+		assertThat(back.hasNext()).isTrue();
+	}
+
+	@Test
+	void beforeFirstPostRewindsToFirstPage() {
+		PageCursor newest = PageCursor.decode(blogService.getPostsForAdmin(null, null, null, 2).nextCursor());
+		PageCursor beyondNewest = new PageCursor(newest.date(), ids.get(4));
+
+		KeysetPage<BlogPost> back = blogService.getPostsForAdmin(null, null, beyondNewest, 2);
+
+		assertThat(idsOf(back)).containsExactly(ids.get(4), ids.get(3));
+		assertThat(back.hasPrevious()).isFalse();
+	}
+
+	private static List<Long> idsOf(KeysetPage<BlogPost> page) {
+		return page.content().stream().map(BlogPost::getId).toList();
+	}
+}
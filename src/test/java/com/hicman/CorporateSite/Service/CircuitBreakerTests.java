@@ -0,0 +1,126 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.hicman.CorporateSite.Service.CircuitBreaker.State;
+
+/**
+ * Stati del circuit breaker (CLOSED → OPEN → HALF_OPEN) con orologio simulato
+ */
+class CircuitBreakerTests {
+
+	private static final Duration OPEN_DURATION = Duration.ofSeconds(60);
+
+	private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+	private final CircuitBreaker breaker = new CircuitBreaker("test", 3, OPEN_DURATION, clock::get);
+
+	@Test
+	void opensAfterConsecutiveFailureThreshold() {
+		fail(2);
+		assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+
+		breaker.onFailure();
+		assertThat(breaker.getState()).isEqualTo(State.OPEN);
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+	}
+
+	@Test
+	void successResetsConsecutiveFailures() {
+		fail(2);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		breaker.onSuccess();
+		fail(2);
+
+		assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+	}
+
+	@Test
+	void ignoredCallsDoNotCountAsFailures() {
+		for (int i = 0; i < 5; i++) {
+			assertThat(breaker.tryAcquirePermission()).isTrue();
+			breaker.onIgnored();
+		}
+		assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+	}
+
+	@Test
+	void staysOpenForOpenDuration() {
+		fail(3);
+
+		clock.addAndGet(OPEN_DURATION.toNanos() - 1);
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+		assertThat(breaker.getRetryAfter()).isEqualTo(Duration.ofNanos(1));
+
+		clock.addAndGet(1);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+		assertThat(breaker.getRetryAfter()).isZero();
+	}
+
+	@Test
+	void allowsSingleTrialWhileHalfOpen() {
+		openAndWait();
+
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+	}
+
+	@Test
+	void successfulTrialClosesCircuit() {
+		openAndWait();
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+
+		breaker.onSuccess();
+
+		assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+	}
+
+	@Test
+	void failedTrialReopensForFullDuration() {
+		openAndWait();
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+
+		breaker.onFailure();
+
+		assertThat(breaker.getState()).isEqualTo(State.OPEN);
+		assertThat(breaker.getRetryAfter()).isEqualTo(OPEN_DURATION);
+		clock.addAndGet(OPEN_DURATION.toNanos() - 1);
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+	}
+
+	@Test
+	void ignoredTrialReleasesSlotWithoutClosing() {
+		openAndWait();
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+
+		breaker.onIgnored();
+
+		// Nessun esito sul servizio: resta HALF_OPEN e può partire un'altra prova
+		assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+	}
+
+	private void fail(int times) {
+		for (int i = 0; i < times; i++) {
+			assertThat(breaker.tryAcquirePermission()).isTrue();
+			breaker.onFailure();
+		}
+	}
+
+	private void openAndWait() {
+		fail(3);
+		clock.addAndGet(OPEN_DURATION.toNanos());
+	}
+}
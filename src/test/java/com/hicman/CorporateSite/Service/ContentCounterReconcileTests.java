@@ -0,0 +1,87 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+import com.hicman.CorporateSite.Repository.BlogPostRepository;
+import com.hicman.CorporateSite.Service.ContentCounterService.Counter;
+
+/**
+ * Riconciliazione dei contatori: corregge le derive senza perdere gli aggiornamenti concorrenti
+ */
+@SpringBootTest
+class ContentCounterReconcileTests {
+
+	@Autowired
+	private ContentCounterService contentCounterService;
+
+	@Autowired
+	private BlogService blogService;
+
+	@Autowired
+	private BlogPostRepository blogPostRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void correctsDriftedCounter() {
+		jdbcTemplate.update("UPDATE content_counters SET counter_value = 999 WHERE name = ?", Counter.BLOG_POSTS.name());
+
+		contentCounterService.reconcile();
+
+		assertThat(contentCounterService.get(Counter.BLOG_POSTS)).isEqualTo(blogPostRepository.count());
+	}
+
+	@Test
+	void keepsIncrementCommittedDuringReconcile() throws Exception {
+		contentCounterService.reconcile();
+		CountDownLatch saved = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		// Salvataggio in corso: contatore già incrementato (riga bloccata), commit non ancora avvenuto
+		CompletableFuture<Void> save = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+			blogService.savePost(post());
+			saved.countDown();
+			await(release);
+		}));
+		assertThat(saved.await(10, TimeUnit.SECONDS)).isTrue();
+
+		CompletableFuture<Void> reconcile = CompletableFuture.runAsync(contentCounterService::reconcile);
+		Thread.sleep(200);
+		release.countDown();
+		save.get(10, TimeUnit.SECONDS);
+		reconcile.get(10, TimeUnit.SECONDS);
+
+		assertThat(contentCounterService.get(Counter.BLOG_POSTS)).isEqualTo(blogPostRepository.count());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static BlogPost post() {
+		BlogPost post = new BlogPost();
+		post.setTitle("Articolo durante la riconciliazione");
+		post.setContent("<p>Contenuto dell'articolo di prova.</p>");
+		post.setPublished(false);
+		return post;
+	}
+}
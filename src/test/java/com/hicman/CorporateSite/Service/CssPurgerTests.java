@@ -0,0 +1,134 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Rimozione delle regole CSS non usate su CSS minificato rappresentativo dei fogli del sito
+ */
+class CssPurgerTests {
+
+	// Frammento di template con classi statiche, th:classappend e uno script che aggiunge classi
+	private static final String TEMPLATE = """
+			<nav class="navbar" id="mainNav">
+			  <a class="nav-link" th:classappend="${page == 'home'} ? 'current'" href="/">Home</a>
+			  <button class="btn btn-primary">Invia</button>
+			</nav>
+			<script>
+			  window.addEventListener('scroll', () => document.getElementById('mainNav').classList.toggle('scrolled', scrollY > 50));
+			</script>
+			""";
+
+	private final CssPurger purger = new CssPurger(tokens(TEMPLATE));
+
+	@Test
+	void keepsRulesForUsedClassesAndIds() {
+		String css = ".navbar{display:flex}#mainNav{top:0}.unused{color:red}#missing{margin:0}";
+
+		assertThat(purger.purge(css)).isEqualTo(".navbar{display:flex}#mainNav{top:0}");
+		assertThat(purger.getRemovedRules()).isEqualTo(2);
+	}
+
+	@Test
+	void keepsElementSelectorsWithoutClasses() {
+		String css = "body{margin:0}a:hover{color:blue}h1+p{margin-top:0}";
+
+		assertThat(purger.purge(css)).isEqualTo(css);
+	}
+
+	@Test
+	void keepsPseudoClassesAndPseudoElementsOfUsedClasses() {
+		String css = ".btn:hover{opacity:.8}.btn-primary:focus-visible{outline:2px solid}"
+				+ ".nav-link::after{content:\"\"}.btn:nth-child(2n+1){margin:0}.ghost:hover{opacity:0}";
+
+		assertThat(purger.purge(css)).isEqualTo(".btn:hover{opacity:.8}.btn-primary:focus-visible{outline:2px solid}"
+				+ ".nav-link::after{content:\"\"}.btn:nth-child(2n+1){margin:0}");
+	}
+
+	@Test
+	void ignoresClassesInsideNotAndAttributeSelectors() {
+		String css = ".nav-link:not(.disabled-link){cursor:pointer}.btn[data-state=\".x\"]{color:red}";
+
+		assertThat(purger.purge(css)).isEqualTo(css);
+	}
+
+	@Test
+	void keepsOnlyUsedSelectorsOfAList() {
+		String css = ".navbar,.sidebar,.btn{padding:0}.ghost,.btn-primary{color:red}";
+
+		assertThat(purger.purge(css)).isEqualTo(".navbar,.btn{padding:0}.btn-primary{color:red}");
+	}
+
+	@Test
+	void keepsFunctionalPseudoClassesConservatively() {
+		// Le virgole dentro :is() non separano selettori e le classi tra parentesi non vengono verificate
+		String css = ":is(.a,.b) .btn{color:red}.ghost:where(.c,.d){color:blue}";
+
+		assertThat(purger.purge(css)).isEqualTo(":is(.a,.b) .btn{color:red}");
+	}
+
+	@Test
+	void requiresEveryClassOfACompoundSelector() {
+		String css = ".navbar .btn{margin:0}.navbar .dropdown{margin:0}.btn.btn-primary{color:#fff}";
+
+		assertThat(purger.purge(css)).isEqualTo(".navbar .btn{margin:0}.btn.btn-primary{color:#fff}");
+	}
+
+	@Test
+	void purgesInsideMediaQueriesAndDropsEmptyOnes() {
+		String css = "@media (max-width:768px){.navbar{flex-direction:column}.unused{display:none}}"
+				+ "@media print{.sidebar{display:none}}"
+				+ "@supports (display:grid){.btn{display:grid}}";
+
+		assertThat(purger.purge(css)).isEqualTo("@media (max-width:768px){.navbar{flex-direction:column}}"
+				+ "@supports (display:grid){.btn{display:grid}}");
+	}
+
+	@Test
+	void keepsClassesAddedDynamically() {
+		// "current" da th:classappend, "scrolled" da classList.toggle nello script inline
+		String css = ".nav-link.current{font-weight:700}.navbar.scrolled{box-shadow:0 1px 4px #0003}";
+
+		assertThat(purger.purge(css)).isEqualTo(css);
+	}
+
+	@Test
+	void keepsSafelistedStateClasses() {
+		Set<String> used = tokens(TEMPLATE);
+		used.add("show");
+		CssPurger withSafelist = new CssPurger(used);
+
+		assertThat(withSafelist.purge(".navbar .show{display:block}.collapse.show{height:auto}"))
+				.isEqualTo(".navbar .show{display:block}");
+	}
+
+	@Test
+	void leavesKeyframesFontFaceAndImportsUntouched() {
+		String css = "@import url(\"fonts.css\");@font-face{font-family:Argentum;src:url(a.ttf)}"
+				+ "@keyframes fade-in{from{opacity:0}to{opacity:1}}.unused{animation:fade-in 1s}";
+
+		assertThat(purger.purge(css)).isEqualTo("@import url(\"fonts.css\");@font-face{font-family:Argentum;src:url(a.ttf)}"
+				+ "@keyframes fade-in{from{opacity:0}to{opacity:1}}");
+	}
+
+	@Test
+	void handlesBracesInsideStrings() {
+		String css = ".btn::before{content:\"{\"}.unused::after{content:\"}\"}.navbar{color:red}";
+
+		assertThat(purger.purge(css)).isEqualTo(".btn::before{content:\"{\"}.navbar{color:red}");
+	}
+
+	private static Set<String> tokens(String template) {
+		Set<String> tokens = new HashSet<>();
+		Matcher matcher = CssPurger.TEMPLATE_TOKEN.matcher(template);
+		while (matcher.find()) {
+			tokens.add(matcher.group());
+		}
+		return tokens;
+	}
+}
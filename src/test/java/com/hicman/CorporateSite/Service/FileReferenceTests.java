@@ -0,0 +1,170 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+
+/**
+ * Riferimenti ai file caricati: contati solo se il record che li usa viene salvato
+ */
+@SpringBootTest
+class FileReferenceTests {
+
+	@Autowired
+	private BlogService blogService;
+
+	@Autowired
+	private FileStorageService fileStorageService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void savedPostAcquiresImageReference() throws IOException {
+		BlogPost post = blogService.savePostWithImage(post("Articolo con immagine"), image(1, "a.png"), false);
+
+		assertThat(refCount(post.getImageUrl())).isEqualTo(1);
+	}
+
+	@Test
+	void failedSaveRollsBackImageReference() throws IOException {
+		long references = totalReferences();
+
+		// Titolo troppo corto: la validazione fallisce al salvataggio, dopo l'upload
+		assertThatThrownBy(() -> blogService.savePostWithImage(post("x"), image(2, "a.png"), false))
+				.isInstanceOf(RuntimeException.class);
+
+		assertThat(totalReferences()).isEqualTo(references);
+	}
+
+	@Test
+	void storeFileRequiresTransaction() {
+		assertThatThrownBy(() -> fileStorageService.storeFile(image(3, "a.png"), "blog"))
+				.isInstanceOf(IllegalTransactionStateException.class);
+	}
+
+	@Test
+	void sameContentIsStoredOnceWhateverTheFileName() throws IOException {
+		String first = blogService.savePostWithImage(post("Logo maiuscolo"), image(4, "logo.PNG"), false).getImageUrl();
+		String second = blogService.savePostWithImage(post("Logo rinominato"), image(4, "logo.jpg"), false).getImageUrl();
+
+		// Estensione dal contenuto (PNG), non dal nome del file
+		assertThat(second).isEqualTo(first).endsWith(".png");
+		assertThat(refCount(first)).isEqualTo(2);
+	}
+
+	@Test
+	void editWithoutUploadKeepsStoredImage() throws IOException {
+		BlogPost saved = blogService.savePostWithImage(post("Articolo da modificare"), image(5, "a.png"), false);
+
+		// Come il form di modifica: solo id e campi di testo, niente URL dell'immagine
+		BlogPost edited = post("Articolo modificato");
+		edited.setId(saved.getId());
+		BlogPost result = blogService.savePostWithImage(edited, null, false);
+
+		assertThat(result.getImageUrl()).isEqualTo(saved.getImageUrl());
+		assertThat(refCount(saved.getImageUrl())).isEqualTo(1);
+	}
+
+	@Test
+	void replacedImageIsReleasedAndDeletedAfterCommit() throws IOException {
+		BlogPost saved = blogService.savePostWithImage(post("Articolo con vecchia immagine"), image(6, "a.png"), false);
+		String oldUrl = saved.getImageUrl();
+
+		BlogPost edited = post("Articolo con nuova immagine");
+		edited.setId(saved.getId());
+		String newUrl = blogService.savePostWithImage(edited, image(7, "b.png"), false).getImageUrl();
+
+		assertThat(newUrl).isNotEqualTo(oldUrl);
+		assertThat(refCount(newUrl)).isEqualTo(1);
+		assertThat(isReferenced(oldUrl)).isFalse();
+		assertThat(Files.exists(fileStorageService.resolvePath(oldUrl))).isFalse();
+	}
+
+	@Test
+	void failedReplacementKeepsOldImage() throws IOException {
+		BlogPost saved = blogService.savePostWithImage(post("Articolo con immagine valida"), image(8, "a.png"), false);
+		String oldUrl = saved.getImageUrl();
+
+		BlogPost edited = post("x");
+		edited.setId(saved.getId());
+		assertThatThrownBy(() -> blogService.savePostWithImage(edited, image(9, "b.png"), true))
+				.isInstanceOf(RuntimeException.class);
+
+		assertThat(blogService.getPostById(saved.getId()).orElseThrow().getImageUrl()).isEqualTo(oldUrl);
+		assertThat(refCount(oldUrl)).isEqualTo(1);
+		assertThat(Files.exists(fileStorageService.resolvePath(oldUrl))).isTrue();
+	}
+
+	@Test
+	void removingImageReleasesIt() throws IOException {
+		BlogPost saved = blogService.savePostWithImage(post("Articolo senza più immagine"), image(10, "a.png"), false);
+
+		BlogPost edited = post("Articolo senza più immagine");
+		edited.setId(saved.getId());
+		BlogPost result = blogService.savePostWithImage(edited, null, true);
+
+		assertThat(result.getImageUrl()).isNull();
+		assertThat(isReferenced(saved.getImageUrl())).isFalse();
+		assertThat(Files.exists(fileStorageService.resolvePath(saved.getImageUrl()))).isFalse();
+	}
+
+	@Test
+	void deletingPostDeletesUnsharedImage() throws IOException {
+		BlogPost saved = blogService.savePostWithImage(post("Articolo da eliminare"), image(11, "a.png"), false);
+		BlogPost sharing = blogService.savePostWithImage(post("Articolo con la stessa immagine"), image(11, "a.png"), false);
+
+		blogService.deletePost(saved.getId());
+		assertThat(refCount(saved.getImageUrl())).isEqualTo(1);
+		assertThat(Files.exists(fileStorageService.resolvePath(saved.getImageUrl()))).isTrue();
+
+		blogService.deletePost(sharing.getId());
+		assertThat(isReferenced(saved.getImageUrl())).isFalse();
+		assertThat(Files.exists(fileStorageService.resolvePath(saved.getImageUrl()))).isFalse();
+	}
+
+	private boolean isReferenced(String path) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM file_references WHERE path = ?", Long.class, path) > 0;
+	}
+
+	private long refCount(String path) {
+		return jdbcTemplate.queryForObject("SELECT ref_count FROM file_references WHERE path = ?", Long.class, path);
+	}
+
+	private long totalReferences() {
+		return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(ref_count), 0) FROM file_references", Long.class);
+	}
+
+	private static BlogPost post(String title) {
+		BlogPost post = new BlogPost();
+		post.setTitle(title);
+		post.setContent("<p>Contenuto dell'articolo di prova.</p>");
+		return post;
+	}
+
+	/**
+	 * PNG valido e diverso per ogni seed (i file sono archiviati per hash del contenuto)
+	 */
+	private static MockMultipartFile image(int seed, String fileName) throws IOException {
+		BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+		image.setRGB(0, 0, seed * 0x010203);
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", png);
+		return new MockMultipartFile("imageFile", fileName, "image/png", png.toByteArray());
+	}
+}
@@ -0,0 +1,75 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+import com.hicman.CorporateSite.Model.ImageVariant;
+
+/**
+ * Limite di pixel della pipeline delle varianti: le immagini troppo grandi non vengono decodificate
+ */
+@SpringBootTest(properties = "image.derivatives.max-pixels=100")
+class ImageDerivativeLimitTests {
+
+	@Autowired
+	private BlogService blogService;
+
+	@Autowired
+	private ImageDerivativeService imageDerivativeService;
+
+	@Autowired
+	private FileStorageService fileStorageService;
+
+	@Test
+	void skipsImagesAboveThePixelLimit() throws Exception {
+		BlogPost post = blogService.savePostWithImage(post("Immagine troppo grande"), png(11, 10), false);
+		awaitDerivatives();
+
+		assertThat(blogService.getPostById(post.getId()).orElseThrow().getImageWidth()).isNull();
+		for (ImageVariant variant : ImageVariant.values()) {
+			assertThat(Files.exists(fileStorageService.resolvePath(variant.urlFor(post.getImageUrl())))).isFalse();
+		}
+	}
+
+	@Test
+	void processesImagesWithinThePixelLimit() throws Exception {
+		BlogPost post = blogService.savePostWithImage(post("Immagine piccola"), png(10, 10), false);
+		awaitDerivatives();
+
+		assertThat(blogService.getPostById(post.getId()).orElseThrow().getImageWidth()).isEqualTo(10);
+		assertThat(Files.exists(fileStorageService.resolvePath(ImageVariant.THUMB.urlFor(post.getImageUrl())))).isTrue();
+	}
+
+	private void awaitDerivatives() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (imageDerivativeService.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+	}
+
+	private static BlogPost post(String title) {
+		BlogPost post = new BlogPost();
+		post.setTitle(title);
+		post.setContent("<p>Contenuto dell'articolo di prova.</p>");
+		return post;
+	}
+
+	private static MockMultipartFile png(int width, int height) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", png);
+		return new MockMultipartFile("imageFile", "image.png", "image/png", png.toByteArray());
+	}
+}
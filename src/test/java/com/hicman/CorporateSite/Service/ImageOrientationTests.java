@@ -0,0 +1,121 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Lettura del tag EXIF Orientation e raddrizzamento dei pixel prima delle varianti
+ */
+class ImageOrientationTests {
+
+	private static final int RED = 0xFFFF0000;
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	void jpegWithoutExifIsUpright() throws IOException {
+		assertThat(ImageDerivativeService.readOrientation(write("plain.jpg", jpeg()))).isEqualTo(1);
+	}
+
+	@Test
+	void nonJpegIsUpright() throws IOException {
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB), "png", png);
+
+		assertThat(ImageDerivativeService.readOrientation(write("image.png", png.toByteArray()))).isEqualTo(1);
+	}
+
+	@Test
+	void readsBigEndianOrientation() throws IOException {
+		byte[] photo = withExif(jpeg(), ByteOrder.BIG_ENDIAN, 6);
+
+		assertThat(ImageDerivativeService.readOrientation(write("portrait.jpg", photo))).isEqualTo(6);
+	}
+
+	@Test
+	void readsLittleEndianOrientation() throws IOException {
+		byte[] photo = withExif(jpeg(), ByteOrder.LITTLE_ENDIAN, 8);
+
+		assertThat(ImageDerivativeService.readOrientation(write("portrait.jpg", photo))).isEqualTo(8);
+	}
+
+	@Test
+	void truncatedExifIsIgnored() throws IOException {
+		byte[] photo = withExif(jpeg(), ByteOrder.BIG_ENDIAN, 6);
+		// Offset dell'IFD0 fuori dal segmento
+		photo[4 + 2 + 6 + 4] = 0x7F;
+
+		assertThat(ImageDerivativeService.readOrientation(write("broken.jpg", photo))).isEqualTo(1);
+	}
+
+	@Test
+	void rotatesAndFlipsAccordingToOrientation() {
+		// 3x2 con il pixel rosso in alto a sinistra
+		BufferedImage source = new BufferedImage(3, 2, BufferedImage.TYPE_INT_RGB);
+		source.setRGB(0, 0, RED);
+
+		assertRedAt(ImageDerivativeService.applyOrientation(source, 1), 3, 2, 0, 0);
+		assertRedAt(ImageDerivativeService.applyOrientation(source, 2), 3, 2, 2, 0);
+		assertRedAt(ImageDerivativeService.applyOrientation(source, 3), 3, 2, 2, 1);
+		assertRedAt(ImageDerivativeService.applyOrientation(source, 4), 3, 2, 0, 1);
+		assertRedAt(ImageDerivativeService.applyOrientation(source, 5), 2, 3, 0, 0);
+		assertRedAt(ImageDerivativeService.applyOrientation(source, 6), 2, 3, 1, 0);
+		assertRedAt(ImageDerivativeService.applyOrientation(source, 7), 2, 3, 1, 2);
+		assertRedAt(ImageDerivativeService.applyOrientation(source, 8), 2, 3, 0, 2);
+	}
+
+	private static void assertRedAt(BufferedImage image, int width, int height, int x, int y) {
+		assertThat(image.getWidth()).isEqualTo(width);
+		assertThat(image.getHeight()).isEqualTo(height);
+		for (int py = 0; py < height; py++) {
+			for (int px = 0; px < width; px++) {
+				assertThat(image.getRGB(px, py) == RED).as("pixel %d,%d", px, py).isEqualTo(px == x && py == y);
+			}
+		}
+	}
+
+	private Path write(String name, byte[] content) throws IOException {
+		return Files.write(directory.resolve(name), content);
+	}
+
+	private static byte[] jpeg() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(4, 2, BufferedImage.TYPE_INT_RGB), "jpeg", out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Inserisce dopo SOI un segmento APP1 Exif con il solo tag Orientation nell'IFD0
+	 */
+	private static byte[] withExif(byte[] jpeg, ByteOrder order, int orientation) {
+		ByteBuffer tiff = ByteBuffer.allocate(26).order(order);
+		tiff.put(order == ByteOrder.BIG_ENDIAN ? (byte) 'M' : (byte) 'I');
+		tiff.put(order == ByteOrder.BIG_ENDIAN ? (byte) 'M' : (byte) 'I');
+		tiff.putShort((short) 42).putInt(8);
+		tiff.putShort((short) 1);
+		tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+		tiff.putInt(0);
+
+		byte[] exif = "Exif\0\0".getBytes();
+		int length = 2 + exif.length + tiff.capacity();
+		ByteBuffer result = ByteBuffer.allocate(jpeg.length + 2 + length);
+		result.put(jpeg, 0, 2);
+		result.put((byte) 0xFF).put((byte) 0xE1).putShort((short) length);
+		result.put(exif).put(tiff.array());
+		result.put(jpeg, 2, jpeg.length - 2);
+		return result.array();
+	}
+}
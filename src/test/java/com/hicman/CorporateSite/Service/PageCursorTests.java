@@ -0,0 +1,58 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Codifica e decodifica dei cursori keyset, compresi i token manomessi
+ */
+class PageCursorTests {
+
+	@Test
+	void roundTripsDateAndId() {
+		PageCursor cursor = new PageCursor(LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123_456_000), 42L);
+
+		assertThat(PageCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void roundTripsCursorWithoutDate() {
+		PageCursor cursor = new PageCursor(null, 7L);
+
+		assertThat(PageCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void tokenIsUrlSafe() {
+		String token = new PageCursor(LocalDateTime.of(2024, 12, 31, 23, 59, 59), Long.MAX_VALUE).encode();
+
+		assertThat(token).matches("[A-Za-z0-9_-]+");
+	}
+
+	@Test
+	void missingTokenDecodesToNull() {
+		assertThat(PageCursor.decode(null)).isNull();
+		assertThat(PageCursor.decode("")).isNull();
+		assertThat(PageCursor.decode("   ")).isNull();
+	}
+
+	@Test
+	void malformedTokensDecodeToNull() {
+		assertThat(PageCursor.decode("%%%")).isNull();
+		assertThat(PageCursor.decode("abc=def")).isNull();
+		assertThat(PageCursor.decode(token("2024-03-15T10:30"))).isNull();
+		assertThat(PageCursor.decode(token("15/03/2024|42"))).isNull();
+		assertThat(PageCursor.decode(token("2024-03-15T10:30|abc"))).isNull();
+		assertThat(PageCursor.decode(token("2024-03-15T10:30|"))).isNull();
+		assertThat(PageCursor.decode(token("2024-03-15T10:30|99999999999999999999"))).isNull();
+	}
+
+	private static String token(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
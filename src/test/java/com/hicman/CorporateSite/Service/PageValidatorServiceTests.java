@@ -0,0 +1,60 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.hicman.CorporateSite.Model.Testimonial;
+import com.hicman.CorporateSite.Service.PageValidatorService.PageValidators;
+
+/**
+ * Validatori delle pagine Press: la revalidazione passa solo dall'ETag
+ */
+class PageValidatorServiceTests {
+
+	private final PageValidatorService service = new PageValidatorService("deploy-1");
+
+	@Test
+	void answersNotModifiedToMatchingEtag() {
+		PageValidators validators = service.forTestimonials(List.of(testimonial(1L)), Locale.ITALIAN);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dicono-di-noi");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, validators.etag());
+
+		assertThat(service.checkNotModified(new ServletWebRequest(request, new MockHttpServletResponse()), validators)).isTrue();
+	}
+
+	@Test
+	void ignoresIfModifiedSinceWithoutEtag() {
+		// Una testimonianza ritirata non sposta la data più recente: senza Last-Modified non c'è 304
+		PageValidators validators = service.forTestimonials(List.of(testimonial(1L)), Locale.ITALIAN);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dicono-di-noi");
+		request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, System.currentTimeMillis());
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThat(service.checkNotModified(new ServletWebRequest(request, response), validators)).isFalse();
+		assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNull();
+	}
+
+	@Test
+	void changesEtagWithLocale() {
+		List<Testimonial> testimonials = List.of(testimonial(1L));
+
+		assertThat(service.forTestimonials(testimonials, Locale.ITALIAN).etag())
+				.isNotEqualTo(service.forTestimonials(testimonials, Locale.ENGLISH).etag());
+	}
+
+	private static Testimonial testimonial(Long id) {
+		Testimonial testimonial = new Testimonial();
+		testimonial.setId(id);
+		testimonial.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 10, 0));
+		return testimonial;
+	}
+}
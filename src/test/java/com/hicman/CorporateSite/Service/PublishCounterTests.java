@@ -0,0 +1,103 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+import com.hicman.CorporateSite.Model.Testimonial;
+import com.hicman.CorporateSite.Service.ContentCounterService.Counter;
+
+/**
+ * Contatori dei contenuti pubblicati dopo pubblicazione/depubblicazione dalle liste admin
+ */
+@SpringBootTest
+class PublishCounterTests {
+
+	@Autowired
+	private BlogService blogService;
+
+	@Autowired
+	private TestimonialService testimonialService;
+
+	@Autowired
+	private ContentCounterService contentCounterService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void togglePublishUpdatesPublishedPostCount() {
+		Long id = blogService.savePost(draftPost()).getId();
+		long published = contentCounterService.get(Counter.PUBLISHED_BLOG_POSTS);
+
+		blogService.togglePublish(id);
+		assertThat(contentCounterService.get(Counter.PUBLISHED_BLOG_POSTS)).isEqualTo(published + 1);
+
+		blogService.togglePublish(id);
+		assertThat(contentCounterService.get(Counter.PUBLISHED_BLOG_POSTS)).isEqualTo(published);
+	}
+
+	@Test
+	void savingManagedPostCountsPublishedChange() {
+		Long id = blogService.savePost(draftPost()).getId();
+		long published = contentCounterService.get(Counter.PUBLISHED_BLOG_POSTS);
+
+		// Come con open-in-view: entity caricata e modificata nello stesso persistence context del salvataggio
+		transactionTemplate.executeWithoutResult(status -> {
+			BlogPost post = blogService.getPostById(id).orElseThrow();
+			post.setPublished(true);
+			post.setPublishedDate(LocalDateTime.now());
+			blogService.savePost(post);
+		});
+
+		assertThat(contentCounterService.get(Counter.PUBLISHED_BLOG_POSTS)).isEqualTo(published + 1);
+	}
+
+	@Test
+	void togglePublishUpdatesPublishedTestimonialCount() {
+		Long id = testimonialService.saveTestimonial(draftTestimonial()).getId();
+		long published = contentCounterService.get(Counter.PUBLISHED_TESTIMONIALS);
+
+		testimonialService.togglePublish(id);
+		assertThat(contentCounterService.get(Counter.PUBLISHED_TESTIMONIALS)).isEqualTo(published + 1);
+
+		testimonialService.togglePublish(id);
+		assertThat(contentCounterService.get(Counter.PUBLISHED_TESTIMONIALS)).isEqualTo(published);
+	}
+
+	@Test
+	void savingManagedTestimonialCountsPublishedChange() {
+		Long id = testimonialService.saveTestimonial(draftTestimonial()).getId();
+		long published = contentCounterService.get(Counter.PUBLISHED_TESTIMONIALS);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			Testimonial testimonial = testimonialService.getTestimonialById(id).orElseThrow();
+			testimonial.setPublished(true);
+			testimonialService.saveTestimonial(testimonial);
+		});
+
+		assertThat(contentCounterService.get(Counter.PUBLISHED_TESTIMONIALS)).isEqualTo(published + 1);
+	}
+
+	private static BlogPost draftPost() {
+		BlogPost post = new BlogPost();
+		post.setTitle("Articolo di prova");
+		post.setContent("<p>Contenuto dell'articolo di prova.</p>");
+		post.setPublished(false);
+		return post;
+	}
+
+	private static Testimonial draftTestimonial() {
+		Testimonial testimonial = new Testimonial();
+		testimonial.setQuote("Una collaborazione preziosa.");
+		testimonial.setSourceName("Azienda di prova");
+		testimonial.setPublished(false);
+		return testimonial;
+	}
+}
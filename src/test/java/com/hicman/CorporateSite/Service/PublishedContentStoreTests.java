@@ -0,0 +1,66 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+import com.hicman.CorporateSite.Model.Testimonial;
+
+/**
+ * Aggiornamento dello snapshot dei contenuti pubblicati dopo il commit, fuori dal thread che salva
+ */
+@SpringBootTest
+class PublishedContentStoreTests {
+
+	@Autowired
+	private PublishedContentStore publishedContentStore;
+
+	@Autowired
+	private BlogService blogService;
+
+	@Autowired
+	private TestimonialService testimonialService;
+
+	@Test
+	void showsPublishedPostAfterCommit() throws InterruptedException {
+		BlogPost post = new BlogPost();
+		post.setTitle("Articolo nello snapshot");
+		post.setContent("<p>Contenuto dell'articolo di prova.</p>");
+		post.setPublished(true);
+		Long id = blogService.savePost(post).getId();
+
+		await(() -> publishedContentStore.getPublishedPostById(id).isPresent());
+
+		assertThat(publishedContentStore.getPublishedPostById(id)).isPresent();
+	}
+
+	@Test
+	void reloadsOnlyTheChangedContentType() throws InterruptedException {
+		publishedContentStore.rebuild();
+		List<BlogPost> posts = publishedContentStore.getAllPublishedPosts();
+
+		Testimonial testimonial = new Testimonial();
+		testimonial.setQuote("Collaborazione eccellente.");
+		testimonial.setSourceName("Cliente di prova");
+		testimonial.setPublished(true);
+		Long id = testimonialService.saveTestimonial(testimonial).getId();
+
+		await(() -> publishedContentStore.getPublishedTestimonialById(id).isPresent());
+
+		assertThat(publishedContentStore.getPublishedTestimonialById(id)).isPresent();
+		assertThat(publishedContentStore.getAllPublishedPosts()).isSameAs(posts);
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.hicman.CorporateSite.Model.BlogPost;
+import com.hicman.CorporateSite.Service.SearchIndexService.SearchResult;
+
+/**
+ * Ranking BM25 e aggiornamento incrementale dell'indice su un piccolo corpus fisso
+ */
+class SearchIndexServiceTests {
+
+	private static final LocalDateTime VERSION = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+	private final SearchIndexService index = new SearchIndexService();
+
+	@Test
+	void titleMatchOutranksContentMatch() {
+		index(post(1, "Bilancio annuale", "Risultati del gruppo presentati agli azionisti."),
+				post(2, "Notizie dal gruppo", "Pubblicato il bilancio annuale dei risultati."),
+				post(3, "Nuovo stabilimento", "Inaugurato il polo produttivo di Torino."));
+
+		assertThat(ids(search("bilancio"))).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void shorterDocumentRanksHigherForSameFrequency() {
+		index(post(1, "Comunicato", "Firmato accordo di fornitura pluriennale con partner europei per nuovi impianti."),
+				post(2, "Comunicato", "Firmato accordo."),
+				post(3, "Notizie", "Inaugurato il polo produttivo di Torino."));
+
+		assertThat(ids(search("accordo"))).containsExactly(2L, 1L);
+	}
+
+	@Test
+	void rareTermWeighsMoreThanCommonTerm() {
+		index(post(1, "Notizie", "Energia rinnovabile."),
+				post(2, "Notizie", "Mercati esteri."),
+				post(3, "Export", "Crescita sui mercati asiatici."),
+				post(4, "Export", "Nuovi mercati americani."));
+
+		List<SearchResult> results = search("energia mercati");
+
+		assertThat(ids(results).get(0)).isEqualTo(1L);
+		assertThat(results.get(0).score()).isGreaterThan(results.get(1).score());
+	}
+
+	@Test
+	void matchingMoreQueryTermsRanksHigher() {
+		index(post(1, "Notizie", "Energia solare."),
+				post(2, "Notizie", "Energia eolica."),
+				post(3, "Notizie", "Polo produttivo."));
+
+		assertThat(ids(search("energia solare"))).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void queryIsAnalyzedLikeDocuments() {
+		index(post(1, "Società finanziaria", "Nuova sede."),
+				post(2, "Notizie", "Polo produttivo."));
+
+		assertThat(ids(search("SOCIETA finanziarie"))).containsExactly(1L);
+	}
+
+	@Test
+	void equalScoresAreOrderedByPublishedDateDescending() {
+		BlogPost older = post(1, "Notizie", "Energia solare.");
+		older.setPublishedDate(VERSION.minusDays(10));
+		BlogPost newer = post(2, "Notizie", "Energia solare.");
+		newer.setPublishedDate(VERSION);
+		index(older, newer);
+
+		assertThat(ids(search("solare"))).containsExactly(2L, 1L);
+	}
+
+	@Test
+	void stopwordOnlyOrUnknownQueryFindsNothing() {
+		index(post(1, "Bilancio annuale", "Risultati del gruppo."));
+
+		assertThat(search("il della")).isEmpty();
+		assertThat(search("inesistente")).isEmpty();
+	}
+
+	@Test
+	void paginatesRankedResults() {
+		index(post(1, "Energia", "Energia energia."),
+				post(2, "Energia", "Energia."),
+				post(3, "Notizie", "Energia."));
+
+		Page<SearchResult> page = index.search("energia", PageRequest.of(1, 2));
+
+		assertThat(page.getTotalElements()).isEqualTo(3);
+		assertThat(page.getContent()).extracting(r -> r.post().getId()).containsExactly(3L);
+	}
+
+	@Test
+	void reindexesChangedPostsAndDropsUnpublishedOnes() {
+		BlogPost post = post(1, "Notizie", "Energia solare.");
+		index(post, post(2, "Notizie", "Polo produttivo."));
+
+		BlogPost edited = post(1, "Notizie", "Energia eolica.");
+		edited.setUpdatedAt(VERSION.plusHours(1));
+		index(edited);
+
+		assertThat(search("solare")).isEmpty();
+		assertThat(ids(search("eolica"))).containsExactly(1L);
+		assertThat(search("produttivo")).isEmpty();
+		assertThat(index.getIndexedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void snippetHighlightsMatchesAndEscapesText() {
+		index(post(1, "Notizie", "<p>Ricavi &amp; <b>utili</b> in crescita</p>"));
+
+		assertThat(search("utili").get(0).snippet()).isEqualTo("Ricavi &amp; <mark>utili</mark> in crescita");
+	}
+
+	private void index(BlogPost... posts) {
+		index.onPublishedContentRefreshed(new PublishedContentRefreshedEvent(List.of(posts), List.of()));
+	}
+
+	private List<SearchResult> search(String query) {
+		return index.search(query, PageRequest.of(0, 10)).getContent();
+	}
+
+	private static List<Long> ids(List<SearchResult> results) {
+		return results.stream().map(r -> r.post().getId()).toList();
+	}
+
+	private static BlogPost post(long id, String title, String content) {
+		BlogPost post = new BlogPost();
+		post.setId(id);
+		post.setTitle(title);
+		post.setContent(content);
+		post.setUpdatedAt(VERSION);
+		post.setPublishedDate(VERSION);
+		return post;
+	}
+}
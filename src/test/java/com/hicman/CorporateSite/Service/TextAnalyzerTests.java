@@ -0,0 +1,52 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tokenizzazione condivisa da ricerca e articoli correlati
+ */
+class TextAnalyzerTests {
+
+	@Test
+	void lowercasesAndDropsStopwordsIncludingElisions() {
+		assertThat(TextAnalyzer.analyze("Il Bilancio dell'Azienda e l'andamento del 2024"))
+				.containsExactly("bilanci", "aziend", "andament", "2024");
+	}
+
+	@Test
+	void removesAccents() {
+		assertThat(TextAnalyzer.analyze("Qualità società")).isEqualTo(TextAnalyzer.analyze("qualita SOCIETA"));
+	}
+
+	@Test
+	void stemsItalianEndingsToSameTerm() {
+		assertThat(TextAnalyzer.analyze("finanziaria finanziarie finanziario"))
+				.containsOnly("finanziari");
+	}
+
+	@Test
+	void stemsEnglishPluralsButNotDoubleS() {
+		assertThat(TextAnalyzer.analyze("markets market business")).containsExactly("market", "market", "business");
+	}
+
+	@Test
+	void leavesShortWordsUnstemmed() {
+		assertThat(TextAnalyzer.analyze("casa bus")).containsExactly("casa", "bus");
+	}
+
+	@Test
+	void emptyOrStopwordOnlyTextHasNoTerms() {
+		assertThat(TextAnalyzer.analyze(null)).isEmpty();
+		assertThat(TextAnalyzer.analyze("  ")).isEmpty();
+		assertThat(TextAnalyzer.analyze("il della, and the")).isEmpty();
+	}
+
+	@Test
+	void convertsHtmlToPlainText() {
+		assertThat(TextAnalyzer.toPlainText("<p>Ricavi &amp; utili</p>\n<p><b>in</b>  crescita</p>"))
+				.isEqualTo("Ricavi & utili in crescita");
+		assertThat(TextAnalyzer.toPlainText(null)).isEmpty();
+	}
+}
@@ -0,0 +1,175 @@
+package com.hicman.CorporateSite.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Token bucket con orologio simulato: capacità, ricarica, bucket comune oltre maxKeys
+ */
+class TokenBucketRateLimiterTests {
+
+	// Come il form contatti: 5 token ogni 10 minuti, un token ogni 2 minuti
+	private static final long TOKEN_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+	private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+	@Test
+	void allowsUpToCapacityThenRejects() {
+		TokenBucketRateLimiter limiter = limiter(5, 100);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+		}
+		assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+	}
+
+	@Test
+	void keysHaveSeparateBuckets() {
+		TokenBucketRateLimiter limiter = limiter(1, 100);
+
+		assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+		assertThat(limiter.tryAcquire("10.0.0.2")).isZero();
+	}
+
+	@Test
+	void reportsWaitUntilNextToken() {
+		TokenBucketRateLimiter limiter = exhausted("10.0.0.1");
+
+		assertThat(limiter.tryAcquire("10.0.0.1")).isCloseTo(TOKEN_NANOS, withinOneMicro());
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+		assertThat(limiter.tryAcquire("10.0.0.1")).isCloseTo(TOKEN_NANOS - TimeUnit.SECONDS.toNanos(30), withinOneMicro());
+	}
+
+	@Test
+	void refillsContinuously() {
+		TokenBucketRateLimiter limiter = exhausted("10.0.0.1");
+
+		clock.addAndGet(TOKEN_NANOS - TimeUnit.SECONDS.toNanos(1));
+		assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+	}
+
+	@Test
+	void refillNeverExceedsCapacity() {
+		TokenBucketRateLimiter limiter = exhausted("10.0.0.1");
+
+		clock.addAndGet(TimeUnit.DAYS.toNanos(1));
+		for (int i = 0; i < 5; i++) {
+			assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+		}
+		assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+	}
+
+	@Test
+	void keysBeyondMaxKeysShareOverflowBucket() {
+		TokenBucketRateLimiter limiter = limiter(2, 2);
+		limiter.tryAcquire("10.0.0.1");
+		limiter.tryAcquire("10.0.0.2");
+
+		// Limite di chiavi raggiunto e nessun bucket pieno: le nuove chiavi finiscono nel bucket comune
+		assertThat(limiter.tryAcquire("10.0.0.3")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.4")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.5")).isPositive();
+		assertThat(limiter.size()).isEqualTo(3);
+	}
+
+	@Test
+	void fullBucketsAreEvictedToMakeRoom() {
+		TokenBucketRateLimiter limiter = limiter(2, 2);
+		limiter.tryAcquire("10.0.0.1");
+		limiter.tryAcquire("10.0.0.2");
+
+		clock.addAndGet(TimeUnit.MINUTES.toNanos(10));
+
+		// I bucket tornati pieni vengono rimossi: la nuova chiave ha un bucket suo
+		assertThat(limiter.tryAcquire("10.0.0.3")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.3")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.3")).isPositive();
+		assertThat(limiter.tryAcquire("10.0.0.4")).isZero();
+	}
+
+	@Test
+	void evictIdleKeepsPartiallyUsedBuckets() {
+		TokenBucketRateLimiter limiter = limiter(5, 100);
+		limiter.tryAcquire("10.0.0.1");
+		limiter.tryAcquire("10.0.0.2");
+
+		clock.addAndGet(TOKEN_NANOS / 2);
+		assertThat(limiter.evictIdle()).isZero();
+
+		clock.addAndGet(TOKEN_NANOS / 2);
+		assertThat(limiter.evictIdle()).isEqualTo(2);
+		assertThat(limiter.size()).isZero();
+	}
+
+	@Test
+	void concurrentAcquiresNeverExceedCapacity() throws Exception {
+		TokenBucketRateLimiter limiter = limiter(1000, 100);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Integer>> tasks = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				tasks.add(() -> {
+					int granted = 0;
+					for (int i = 0; i < 250; i++) {
+						if (limiter.tryAcquire("10.0.0.1") == 0) {
+							granted++;
+						}
+					}
+					return granted;
+				});
+			}
+			int granted = 0;
+			for (Future<Integer> result : executor.invokeAll(tasks)) {
+				granted += result.get();
+			}
+			assertThat(granted).isEqualTo(1000);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void retryAfterRoundsUp() {
+		assertThat(RateLimiterService.retryAfterSeconds(1)).isEqualTo(1);
+		assertThat(RateLimiterService.retryAfterSeconds(TimeUnit.SECONDS.toNanos(1))).isEqualTo(1);
+		assertThat(RateLimiterService.retryAfterSeconds(TimeUnit.MILLISECONDS.toNanos(1900))).isEqualTo(2);
+		assertThat(RateLimiterService.retryAfterSeconds(TimeUnit.SECONDS.toNanos(120) + 1)).isEqualTo(121);
+	}
+
+	/**
+	 * Stessa velocità di ricarica (un token ogni 2 minuti) per qualsiasi capacità
+	 */
+	private TokenBucketRateLimiter limiter(int capacity, int maxKeys) {
+		return new TokenBucketRateLimiter(capacity, Duration.ofNanos(TOKEN_NANOS * capacity), maxKeys, clock::get);
+	}
+
+	private TokenBucketRateLimiter exhausted(String key) {
+		TokenBucketRateLimiter limiter = limiter(5, 100);
+		for (int i = 0; i < 5; i++) {
+			limiter.tryAcquire(key);
+		}
+		return limiter;
+	}
+
+	private static Offset<Long> withinOneMicro() {
+		return Offset.offset(TimeUnit.MICROSECONDS.toNanos(1));
+	}
+}